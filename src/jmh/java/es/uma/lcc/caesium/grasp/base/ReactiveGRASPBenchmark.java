@@ -0,0 +1,78 @@
+package es.uma.lcc.caesium.grasp.base;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.uma.lcc.caesium.grasp.test.TaskAssignmentGRASPObjectiveFunction;
+import es.uma.lcc.caesium.problem.permutation.taskassignment.TaskAssignment;
+
+/**
+ * Benchmarks of the reactive machinery of GRASP (parameter selection and update).
+ * The reactive state is the one left by a short run on a random task assignment instance.
+ * @author ccottap
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReactiveGRASPBenchmark {
+	/**
+	 * seed for generating the instance and running the algorithm
+	 */
+	private static final long SEED = 1;
+	/**
+	 * number of tasks (the number of RCL values is one less)
+	 */
+	@Param({"100", "300", "1000"})
+	public int n;
+	/**
+	 * the solver
+	 */
+	private ReactiveGRASP grasp;
+	
+	/**
+	 * Creates the solver and performs a short run to obtain a non-trivial reactive state
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		TaskAssignmentGRASPObjectiveFunction obj = new TaskAssignmentGRASPObjectiveFunction(new TaskAssignment(n, SEED));
+		grasp = new ReactiveGRASP();
+		grasp.setObjectiveFunction(obj);
+		grasp.setNumIters(500 * (n + 1));
+		for (int i=1; i<n; i++)
+			grasp.addValue(i);
+		grasp.run(SEED);
+	}
+	
+	/**
+	 * Selection of a RCL value
+	 * @return the slot selected
+	 */
+	@Benchmark
+	public int pick() {
+		return grasp.pick();
+	}
+	
+	/**
+	 * Reactive update of the probabilities
+	 */
+	@Benchmark
+	public void update() {
+		grasp.update();
+	}
+}
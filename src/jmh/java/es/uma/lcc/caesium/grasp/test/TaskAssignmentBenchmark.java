@@ -0,0 +1,195 @@
+package es.uma.lcc.caesium.grasp.test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.uma.lcc.caesium.grasp.base.ReactiveGRASP;
+import es.uma.lcc.caesium.problem.permutation.taskassignment.TaskAssignment;
+
+/**
+ * Benchmarks of the problem-specific functions for the task assignment problem
+ * (decoding, local search and evaluation) and of complete GRASP iterations. 
+ * Run with {@code -prof gc} to obtain allocation rates.
+ * @author ccottap
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class TaskAssignmentBenchmark {
+	/**
+	 * seed for generating the instance, the ranks and running the algorithm
+	 */
+	private static final long SEED = 1;
+	/**
+	 * number of precomputed rank sequences (and solutions)
+	 */
+	private static final int POOL = 64;
+	/**
+	 * number of tasks
+	 */
+	@Param({"100", "300", "1000"})
+	public int n;
+	/**
+	 * maximum number of neighbors explored by local search
+	 */
+	@Param({"10000"})
+	public int neighbors;
+	/**
+	 * whether the costs are also stored by task
+	 */
+	@Param({"false", "true"})
+	public boolean byTask;
+	/**
+	 * distribution of the ranks: all zero, uniform up to a random bound below 10 ("small"),
+	 * or uniform up to a random bound below n
+	 */
+	@Param({"uniform"})
+	public String rankDistribution;
+	/**
+	 * the objective function
+	 */
+	private TaskAssignmentGRASPObjectiveFunction obj;
+	/**
+	 * precomputed rank sequences
+	 */
+	private int[][] ranks;
+	/**
+	 * solutions decoded from the rank sequences
+	 */
+	private int[][] sols;
+	/**
+	 * the solver
+	 */
+	private ReactiveGRASP grasp;
+	/**
+	 * index of the next rank sequence (or solution) to be used
+	 */
+	private int next;
+	
+	/**
+	 * Counter of GRASP iterations, reported as an additional throughput metric
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Iterations {
+		/**
+		 * number of GRASP iterations performed
+		 */
+		public long iterations;
+		
+		/**
+		 * Resets the counter
+		 */
+		@Setup(Level.Iteration)
+		public void reset() {
+			iterations = 0;
+		}
+	}
+	
+	/**
+	 * Creates the instance, the rank sequences, the solutions and the solver
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		TaskAssignment tap = new TaskAssignment(n, SEED);
+		if (byTask)
+			tap.storeByTask();
+		obj = new TaskAssignmentGRASPObjectiveFunction(tap);
+		obj.setNumNeighbors(neighbors);
+		Random rng = new Random(SEED);
+		ranks = new int[POOL][n];
+		sols = new int[POOL][];
+		for (int k=0; k<POOL; k++) {
+			int v = switch (rankDistribution) {
+			case "zero" -> 0;
+			case "small" -> 1 + rng.nextInt(Math.min(10, n-1));
+			default -> 1 + rng.nextInt(n-1);
+			};
+			for (int j=0; j<n; j++)
+				ranks[k][j] = Math.min(rng.nextInt(v+1), n-j-1);
+			sols[k] = obj.decode(ranks[k]);
+		}
+		next = 0;
+		
+		grasp = new ReactiveGRASP();
+		grasp.setObjectiveFunction(obj);
+		grasp.setNumIters(500 * (n + 1));
+		for (int i=1; i<n; i++)
+			grasp.addValue(i);
+	}
+	
+	/**
+	 * Returns the index of the next rank sequence (or solution) to be used
+	 * @return the index of the next rank sequence
+	 */
+	private int next() {
+		next = (next + 1) % POOL;
+		return next;
+	}
+	
+	/**
+	 * Decoding of a rank sequence
+	 * @return the decoded solution
+	 */
+	@Benchmark
+	public Object decode() {
+		return obj.decode(ranks[next()]);
+	}
+
+	/**
+	 * Decoding of a rank sequence, accumulating the fitness of the solution
+	 * @return the decoded solution and its fitness
+	 */
+	@Benchmark
+	public Object construct() {
+		return obj.construct(ranks[next()]);
+	}
+
+	/**
+	 * Local search on a decoded solution
+	 * @return the result of local search
+	 */
+	@Benchmark
+	public Object improve() {
+		return obj.improve(sols[next()]);
+	}
+	
+	/**
+	 * Evaluation of a decoded solution
+	 * @return the fitness of the solution
+	 */
+	@Benchmark
+	public double evaluate() {
+		return obj.evaluate(sols[next()]);
+	}
+	
+	/**
+	 * A complete (short) run of reactive GRASP. The number of GRASP iterations
+	 * per second is reported as the "iterations" metric.
+	 * @param counter counter of GRASP iterations
+	 */
+	@Benchmark
+	public void run(Iterations counter) {
+		grasp.run(SEED);
+		counter.iterations += grasp.getSearchState().getIterations();
+		grasp.getStatistics().clear();
+	}
+}
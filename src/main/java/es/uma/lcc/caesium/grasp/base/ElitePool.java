@@ -0,0 +1,142 @@
+package es.uma.lcc.caesium.grasp.base;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Pool of elite solutions with diversity-aware replacement. A candidate too close to 
+ * a member of the pool (distance below a threshold) can only replace the closest member, 
+ * and only if it is better. Otherwise, it is added if the pool is not full, or replaces 
+ * the worst member if it is better.
+ * @author ccottap
+ * @version 1.0
+ */
+class ElitePool {
+	/**
+	 * objective function (used to compute distances)
+	 */
+	private final TypedGRASPObjectiveFunction<Object> gof;
+	/**
+	 * minimum distance between a new member and the rest of the pool
+	 */
+	private final int minDistance;
+	/**
+	 * the members of the pool
+	 */
+	private final Object[] sols;
+	/**
+	 * fitness of the members of the pool
+	 */
+	private final double[] fitness;
+	/**
+	 * number of members of the pool
+	 */
+	private int size;
+	
+	/**
+	 * Creates an empty pool
+	 * @param gof the objective function
+	 * @param capacity the maximum number of members
+	 * @param minDistance the minimum distance between a new member and the rest of the pool (at least 1)
+	 */
+	ElitePool(TypedGRASPObjectiveFunction<Object> gof, int capacity, int minDistance) {
+		this.gof = gof;
+		this.minDistance = Math.max(1, minDistance);
+		sols = new Object[capacity];
+		fitness = new double[capacity];
+		size = 0;
+	}
+	
+	/**
+	 * Returns the number of members of the pool
+	 * @return the number of members of the pool
+	 */
+	int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns a member of the pool
+	 * @param k the index of the member
+	 * @return the k-th member of the pool
+	 */
+	Object get(int k) {
+		return sols[k];
+	}
+	
+	/**
+	 * Returns the fitness of a member of the pool
+	 * @param k the index of the member
+	 * @return the fitness of the k-th member of the pool
+	 */
+	double fitness(int k) {
+		return fitness[k];
+	}
+	
+	/**
+	 * Offers a candidate solution to the pool
+	 * @param sol the candidate solution
+	 * @param f the fitness of the candidate
+	 * @return true if the candidate entered the pool
+	 */
+	boolean offer(Object sol, double f) {
+		int worst = -1;
+		for (int k=0; k<size; k++)
+			if ((worst < 0) || (fitness[k] > fitness[worst]))
+				worst = k;
+		if ((size == sols.length) && (f >= fitness[worst]))
+			return false;			// cannot improve any member
+		
+		int closest = -1;
+		int dmin = Integer.MAX_VALUE;
+		for (int k=0; k<size; k++) {
+			int d = gof.distance(sol, sols[k]);
+			if (d < dmin) {
+				dmin = d;
+				closest = k;
+			}
+		}
+		int target;
+		if (dmin < minDistance) 
+			target = (f < fitness[closest]) ? closest : -1;
+		else if (size < sols.length) 
+			target = size++;
+		else
+			target = worst;
+		if (target < 0)
+			return false;
+		sols[target] = sol;
+		fitness[target] = f;
+		return true;
+	}
+	
+	/**
+	 * Saves the members of the pool. Solutions must be serializable.
+	 * @param out the stream to write to
+	 * @throws IOException if the pool cannot be written
+	 */
+	void write(ObjectOutput out) throws IOException {
+		out.writeInt(size);
+		for (int k=0; k<size; k++) {
+			out.writeDouble(fitness[k]);
+			out.writeObject(sols[k]);
+		}
+	}
+	
+	/**
+	 * Restores the members of the pool
+	 * @param in the stream to read from
+	 * @throws IOException if the pool cannot be read or does not fit
+	 * @throws ClassNotFoundException if the class of a solution is not found
+	 */
+	void read(ObjectInput in) throws IOException, ClassNotFoundException {
+		int m = in.readInt();
+		if (m > sols.length)
+			throw new IOException("the elite pool does not fit (" + m + " members)");
+		for (size=0; size<m; size++) {
+			fitness[size] = in.readDouble();
+			sols[size] = in.readObject();
+		}
+	}
+}
@@ -0,0 +1,342 @@
+package es.uma.lcc.caesium.grasp.base;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Runtime metrics of reactive GRASP (see {@link ReactiveGRASP#setMetrics(GRASPMetrics)}). They can be
+ * pulled from any thread while the solver is running, or exposed via JMX with {@link #register(String)}.
+ * Counters are lock-free. The time spent decoding, improving and evaluating solutions is only measured
+ * in one out of a given number of iterations, and extrapolated. The metrics can be shared by several runs 
+ * (e.g., parallel runs or the runs of a batch): counters are then added up, the best fitness is the best
+ * of all runs, and the probabilities are kept for each run.
+ * @author ccottap
+ * @version 1.1
+ */
+public class GRASPMetrics implements GRASPMetricsMXBean {
+	/**
+	 * default sampling period of the timers (must be a power of 2)
+	 */
+	private static final int SAMPLING_PERIOD = 16;
+	/**
+	 * mask to select the iterations whose times are measured
+	 */
+	private final int samplingMask;
+	/**
+	 * number of iterations
+	 */
+	private final LongAdder iterations = new LongAdder();
+	/**
+	 * number of evaluations
+	 */
+	private final DoubleAdder evaluations = new DoubleAdder();
+	/**
+	 * cost of local search
+	 */
+	private final DoubleAdder lsCost = new DoubleAdder();
+	/**
+	 * number of local search moves
+	 */
+	private final LongAdder moves = new LongAdder();
+	/**
+	 * number of iterations served by the cache
+	 */
+	private final LongAdder hits = new LongAdder();
+	/**
+	 * number of iterations whose times have been measured
+	 */
+	private final LongAdder timed = new LongAdder();
+	/**
+	 * measured decoding time (ns)
+	 */
+	private final LongAdder decodeNanos = new LongAdder();
+	/**
+	 * measured local search time (ns)
+	 */
+	private final LongAdder improveNanos = new LongAdder();
+	/**
+	 * measured evaluation time (ns)
+	 */
+	private final LongAdder evaluateNanos = new LongAdder();
+	/**
+	 * time of creation or last reset
+	 */
+	private volatile long start;
+	/**
+	 * RCL values
+	 */
+	private volatile int[] values = new int[0];
+	/**
+	 * number of times each RCL value has been selected
+	 */
+	private volatile AtomicLongArray selections = new AtomicLongArray(0);
+	/**
+	 * number of runs started
+	 */
+	private final AtomicInteger runs = new AtomicInteger();
+	/**
+	 * current probabilities of the RCL values in each run
+	 */
+	private final Map<Integer, double[]> prob = new ConcurrentHashMap<Integer, double[]>();
+	/**
+	 * best fitness of all runs
+	 */
+	private final DoubleAccumulator best = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+	
+	/**
+	 * Creates the metrics with the default sampling period of the timers
+	 */
+	public GRASPMetrics() {
+		this(SAMPLING_PERIOD);
+	}
+	
+	/**
+	 * Creates the metrics
+	 * @param period the sampling period of the timers (rounded up to a power of 2)
+	 */
+	public GRASPMetrics(int period) {
+		samplingMask = (period <= 1) ? 0 : Integer.highestOneBit(period - 1) * 2 - 1;
+		start = System.nanoTime();
+	}
+	
+	/**
+	 * Registers the metrics in the platform MBean server
+	 * @param name the name of the solver
+	 * @return the name of the MBean
+	 * @throws JMException if the metrics cannot be registered
+	 */
+	public ObjectName register(String name) throws JMException {
+		ObjectName on = new ObjectName("es.uma.lcc.caesium.grasp:type=ReactiveGRASP,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+		return on;
+	}
+	
+	/**
+	 * Unregisters the metrics from the platform MBean server
+	 * @param on the name of the MBean
+	 * @throws JMException if the metrics cannot be unregistered
+	 */
+	public void unregister(ObjectName on) throws JMException {
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(on);
+	}
+	
+	/**
+	 * Logs the start of a run
+	 * @param slotValue the RCL values
+	 * @return the index of the run
+	 */
+	synchronized int newRun(int[] slotValue) {
+		if (!Arrays.equals(slotValue, values)) {
+			selections = new AtomicLongArray(slotValue.length);
+			values = slotValue.clone();
+		}
+		return runs.getAndIncrement();
+	}
+	
+	/**
+	 * Indicates whether the times of an iteration have to be measured
+	 * @param k the index of the iteration within its block
+	 * @return true if the times of the iteration have to be measured
+	 */
+	boolean isTimed(int k) {
+		return (k & samplingMask) == 0;
+	}
+	
+	/**
+	 * Logs the times measured in an iteration
+	 * @param decode decoding time (ns)
+	 * @param improve local search time (ns)
+	 * @param evaluate evaluation time (ns)
+	 */
+	void time(long decode, long improve, long evaluate) {
+		timed.increment();
+		decodeNanos.add(decode);
+		improveNanos.add(improve);
+		evaluateNanos.add(evaluate);
+	}
+	
+	/**
+	 * Logs an iteration
+	 * @param slot the slot of the RCL value selected
+	 * @param evals the number of evaluations of the iteration
+	 * @param cost the cost of local search
+	 * @param moves the number of local search moves
+	 * @param cached whether the iteration was served by the cache
+	 */
+	void iteration(int slot, double evals, double cost, long moves, boolean cached) {
+		iterations.increment();
+		evaluations.add(evals);
+		lsCost.add(cost);
+		this.moves.add(moves);
+		if (cached)
+			hits.increment();
+		AtomicLongArray s = selections;
+		if (slot < s.length())
+			s.incrementAndGet(slot);
+	}
+	
+	/**
+	 * Logs evaluations performed outside the iterations (e.g., path relinking)
+	 * @param evals the number of evaluations
+	 */
+	void evaluations(double evals) {
+		evaluations.add(evals);
+	}
+	
+	/**
+	 * Logs an update of the probabilities of a run
+	 * @param run the index of the run
+	 * @param p the new probabilities (copied)
+	 */
+	void probabilities(int run, double[] p) {
+		prob.put(run, p.clone());
+	}
+	
+	/**
+	 * Logs an improvement of the best fitness of a run
+	 * @param f the new best fitness of the run
+	 */
+	void improved(double f) {
+		best.accumulate(f);
+	}
+	
+	/**
+	 * Returns the time elapsed since the creation or last reset of the metrics
+	 * @return the elapsed time in seconds
+	 */
+	private double elapsed() {
+		return Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+	}
+	
+	/**
+	 * Returns the average of a measured time per iteration
+	 * @param nanos the measured time (ns)
+	 * @return the average time per measured iteration in microseconds
+	 */
+	private double average(LongAdder nanos) {
+		long t = timed.sum();
+		return (t == 0) ? 0 : nanos.sum() / 1e3 / t;
+	}
+	
+	@Override
+	public long getIterations() {
+		return iterations.sum();
+	}
+	
+	@Override
+	public double getEvaluations() {
+		return evaluations.sum();
+	}
+	
+	@Override
+	public double getIterationsPerSecond() {
+		return iterations.sum() / elapsed();
+	}
+	
+	@Override
+	public double getEvaluationsPerSecond() {
+		return evaluations.sum() / elapsed();
+	}
+	
+	@Override
+	public double getDecodeMicros() {
+		return average(decodeNanos);
+	}
+	
+	@Override
+	public double getImproveMicros() {
+		return average(improveNanos);
+	}
+	
+	@Override
+	public double getEvaluateMicros() {
+		return average(evaluateNanos);
+	}
+	
+	@Override
+	public double getLocalSearchCostPerIteration() {
+		long it = iterations.sum();
+		return (it == 0) ? 0 : lsCost.sum() / it;
+	}
+	
+	@Override
+	public double getMovesPerIteration() {
+		long it = iterations.sum();
+		return (it == 0) ? 0 : (double)moves.sum() / it;
+	}
+	
+	@Override
+	public long getCacheHits() {
+		return hits.sum();
+	}
+	
+	@Override
+	public double getBestFitness() {
+		return best.get();
+	}
+	
+	@Override
+	public int[] getValues() {
+		return values.clone();
+	}
+	
+	@Override
+	public long[] getSelectionCounts() {
+		AtomicLongArray s = selections;
+		long[] counts = new long[s.length()];
+		for (int slot=0; slot<counts.length; slot++)
+			counts[slot] = s.get(slot);
+		return counts;
+	}
+	
+	@Override
+	public double[] getProbabilities() {
+		double[] mean = new double[values.length];
+		int m = 0;
+		for (double[] p: prob.values()) {
+			if (p.length == mean.length) {
+				for (int slot=0; slot<mean.length; slot++)
+					mean[slot] += p[slot];
+				m++;
+			}
+		}
+		if (m > 0) {
+			for (int slot=0; slot<mean.length; slot++)
+				mean[slot] /= m;
+		}
+		return mean;
+	}
+	
+	@Override
+	public double[][] getRunProbabilities() {
+		double[][] p = new double[runs.get()][];
+		for (int run=0; run<p.length; run++) 
+			p[run] = prob.getOrDefault(run, new double[0]).clone();
+		return p;
+	}
+	
+	@Override
+	public void reset() {
+		iterations.reset();
+		evaluations.reset();
+		lsCost.reset();
+		moves.reset();
+		hits.reset();
+		timed.reset();
+		decodeNanos.reset();
+		improveNanos.reset();
+		evaluateNanos.reset();
+		selections = new AtomicLongArray(values.length);
+		start = System.nanoTime();
+	}
+}
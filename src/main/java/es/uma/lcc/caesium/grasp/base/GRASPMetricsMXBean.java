@@ -0,0 +1,105 @@
+package es.uma.lcc.caesium.grasp.base;
+
+/**
+ * Management interface of the runtime metrics of reactive GRASP. Times are estimated from 
+ * a sample of the iterations. Rates are computed since the creation or the last reset of the metrics.
+ * @author ccottap
+ * @version 1.1
+ */
+public interface GRASPMetricsMXBean {
+	/**
+	 * Returns the number of iterations performed
+	 * @return the number of iterations performed
+	 */
+	long getIterations();
+	
+	/**
+	 * Returns the number of evaluations performed
+	 * @return the number of evaluations performed
+	 */
+	double getEvaluations();
+	
+	/**
+	 * Returns the number of iterations per second
+	 * @return the number of iterations per second
+	 */
+	double getIterationsPerSecond();
+	
+	/**
+	 * Returns the number of evaluations per second
+	 * @return the number of evaluations per second
+	 */
+	double getEvaluationsPerSecond();
+	
+	/**
+	 * Returns the average time spent decoding solutions in an iteration
+	 * @return the average decoding time per iteration in microseconds
+	 */
+	double getDecodeMicros();
+	
+	/**
+	 * Returns the average time spent improving solutions in an iteration
+	 * @return the average local search time per iteration in microseconds
+	 */
+	double getImproveMicros();
+	
+	/**
+	 * Returns the average time spent evaluating solutions in an iteration
+	 * @return the average evaluation time per iteration in microseconds
+	 */
+	double getEvaluateMicros();
+	
+	/**
+	 * Returns the average cost of local search in an iteration
+	 * @return the average cost of local search per iteration (in evaluations)
+	 */
+	double getLocalSearchCostPerIteration();
+	
+	/**
+	 * Returns the average number of moves performed by local search in an iteration, as reported
+	 * by the objective function (iterations served by the cache perform none)
+	 * @return the average number of local search moves per iteration
+	 */
+	double getMovesPerIteration();
+	
+	/**
+	 * Returns the number of iterations served by the solution cache
+	 * @return the number of cache hits
+	 */
+	long getCacheHits();
+	
+	/**
+	 * Returns the best fitness found by the runs
+	 * @return the best fitness found by the runs
+	 */
+	double getBestFitness();
+	
+	/**
+	 * Returns the RCL values
+	 * @return the RCL values (in increasing order)
+	 */
+	int[] getValues();
+	
+	/**
+	 * Returns the number of times each RCL value has been selected
+	 * @return the number of times each RCL value has been selected
+	 */
+	long[] getSelectionCounts();
+	
+	/**
+	 * Returns the current probabilities of the RCL values, averaged over the runs
+	 * @return the mean current probability of each RCL value
+	 */
+	double[] getProbabilities();
+	
+	/**
+	 * Returns the current (or last) probabilities of the RCL values in each run
+	 * @return the current probability of each RCL value in each run, in the order the runs were started
+	 */
+	double[][] getRunProbabilities();
+	
+	/**
+	 * Resets the metrics
+	 */
+	void reset();
+}
@@ -3,7 +3,8 @@ package es.uma.lcc.caesium.grasp.base;
 import java.util.List;
 
 /**
- * Objective function for GRASP
+ * Objective function for GRASP. See {@link TypedGRASPObjectiveFunction} for
+ * a variant with typed solutions and primitive ranks.
  * @author ccottap
  * @version 1.0
  */
@@ -38,7 +39,7 @@ public interface GRASPObjectiveFunction {
 	 * @param sol the solution to be improved
 	 * @return an improved solution and the associated search cost
 	 */
-	LocalSearchResult improve (Object sol);
+	LocalSearchResult<?> improve (Object sol);
 
 	/**
 	 * Returns the fitness of a solution
@@ -0,0 +1,66 @@
+package es.uma.lcc.caesium.grasp.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapts an untyped {@link GRASPObjectiveFunction} to the {@link TypedGRASPObjectiveFunction} interface
+ * @author ccottap
+ * @version 1.0
+ */
+public class GRASPObjectiveFunctionAdapter implements TypedGRASPObjectiveFunction<Object> {
+	/**
+	 * the adapted objective function
+	 */
+	private final GRASPObjectiveFunction gof;
+	
+	/**
+	 * Creates the adapter
+	 * @param gof the objective function to be adapted
+	 */
+	public GRASPObjectiveFunctionAdapter(GRASPObjectiveFunction gof) {
+		this.gof = gof;
+	}
+	
+	/**
+	 * Returns the adapted objective function
+	 * @return the adapted objective function
+	 */
+	public GRASPObjectiveFunction getObjectiveFunction() {
+		return gof;
+	}
+
+	@Override
+	public int getNumberOfVariables() {
+		return gof.getNumberOfVariables();
+	}
+
+	@Override
+	public double equivalentCost() {
+		return gof.equivalentCost();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The ranks are copied to a list before being passed to the adapted function.
+	 */
+	@Override
+	public Object decode(int[] ranks) {
+		List<Integer> l = new ArrayList<Integer>(ranks.length);
+		for (int r: ranks)
+			l.add(r);
+		return gof.decode(l);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public LocalSearchResult<Object> improve(Object sol) {
+		return (LocalSearchResult<Object>) gof.improve(sol);
+	}
+
+	@Override
+	public double evaluate(Object sol) {
+		return gof.evaluate(sol);
+	}
+
+}
@@ -0,0 +1,136 @@
+package es.uma.lcc.caesium.grasp.base;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import es.uma.lcc.caesium.grasp.statistics.GRASPStatistics;
+
+/**
+ * Handle of a run of reactive GRASP performed asynchronously (see {@link ReactiveGRASP#runAsync()}).
+ * The best solution found so far can be queried at any time, and the run can be cancelled. 
+ * Cancellation is cooperative: the run stops after the current iteration and is then
+ * closed normally, so its statistics are available as if the stopping criterion had been met.
+ * @author ccottap
+ * @version 1.0
+ */
+public class GRASPRun {
+	/**
+	 * the solver performing the run
+	 */
+	private final ReactiveGRASP solver;
+	/**
+	 * the statistics of the solver, available when the run is over
+	 */
+	private final CompletableFuture<GRASPStatistics> result;
+	/**
+	 * whether cancellation has been requested
+	 */
+	private volatile boolean cancelled;
+	
+	/**
+	 * Creates the handle of a run
+	 * @param solver the solver performing the run
+	 */
+	GRASPRun(ReactiveGRASP solver) {
+		this.solver = solver;
+		result = new CompletableFuture<GRASPStatistics>();
+		cancelled = false;
+	}
+	
+	/**
+	 * Returns the future completed with the statistics of the solver when the run is over
+	 * @return the future result of the run
+	 */
+	public CompletableFuture<GRASPStatistics> future() {
+		return result.copy();
+	}
+	
+	/**
+	 * Completes the run
+	 * @param stats the statistics of the solver
+	 */
+	void complete(GRASPStatistics stats) {
+		result.complete(stats);
+	}
+	
+	/**
+	 * Completes the run with a failure
+	 * @param e the cause of the failure
+	 */
+	void fail(Throwable e) {
+		result.completeExceptionally(e);
+	}
+	
+	/**
+	 * Requests the cancellation of the run
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+	
+	/**
+	 * Indicates whether cancellation has been requested
+	 * @return true if cancellation has been requested
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+	
+	/**
+	 * Indicates whether the run is over
+	 * @return true if the run is over (normally, cancelled or due to an exception)
+	 */
+	public boolean isDone() {
+		return result.isDone();
+	}
+	
+	/**
+	 * Waits for the run to finish
+	 * @return the statistics of the solver
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws ExecutionException if the run failed
+	 */
+	public GRASPStatistics get() throws InterruptedException, ExecutionException {
+		return result.get();
+	}
+	
+	/**
+	 * Waits for the run to finish for at most a given time
+	 * @param timeout the maximum time to wait
+	 * @param unit the time unit of the timeout
+	 * @return the statistics of the solver
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws ExecutionException if the run failed
+	 * @throws TimeoutException if the run did not finish in time
+	 */
+	public GRASPStatistics get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		return result.get(timeout, unit);
+	}
+	
+	/**
+	 * Returns the best solution found so far in the run
+	 * @return the best solution found so far (null if none yet)
+	 */
+	public Object getCurrentBest() {
+		return solver.getCurrentBest();
+	}
+	
+	/**
+	 * Returns the ranks of the best solution found so far in the run
+	 * @return the ranks of the best solution found so far (null if none yet)
+	 */
+	public List<Integer> getCurrentBestRanks() {
+		return solver.getCurrentBestRanks();
+	}
+	
+	/**
+	 * Returns the fitness of the best solution found so far in the run
+	 * @return the fitness of the best solution found so far (infinity if none yet)
+	 */
+	public double getCurrentBestFitness() {
+		return solver.getCurrentBestFitness();
+	}
+}
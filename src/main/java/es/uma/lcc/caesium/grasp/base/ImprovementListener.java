@@ -0,0 +1,18 @@
+package es.uma.lcc.caesium.grasp.base;
+
+import es.uma.lcc.caesium.grasp.statistics.GRASPSolutionEntry;
+
+/**
+ * Listener notified whenever reactive GRASP improves the best solution of a run.
+ * It is invoked on the thread performing the run, so it should return quickly.
+ * @author ccottap
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ImprovementListener {
+	/**
+	 * Notifies an improvement of the best solution of the run
+	 * @param entry the new best solution (evaluations, fitness, ranks, solution and elapsed time)
+	 */
+	void improved(GRASPSolutionEntry entry);
+}
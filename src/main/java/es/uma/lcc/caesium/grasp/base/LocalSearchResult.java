@@ -2,11 +2,42 @@ package es.uma.lcc.caesium.grasp.base;
 
 /**
  * Results of the application of local search
+ * @param <S> the type of solutions
  * @param solution the improved solution
  * @param cost the cost of performing local search
+ * @param fitness the fitness of the improved solution, or NaN if it has not been computed 
+ * (in which case it is obtained via a separate evaluation)
+ * @param moves the number of moves performed (0 if not reported)
  * @author ccottap
- * @version 1.0
+ * @version 1.2
  */
-public record LocalSearchResult(Object solution, double cost) {
+public record LocalSearchResult<S>(S solution, double cost, double fitness, long moves) {
+	
+	/**
+	 * Creates a result that does not report the number of moves performed
+	 * @param solution the improved solution
+	 * @param cost the cost of performing local search
+	 * @param fitness the fitness of the improved solution, or NaN if it has not been computed
+	 */
+	public LocalSearchResult(S solution, double cost, double fitness) {
+		this(solution, cost, fitness, 0);
+	}
+	
+	/**
+	 * Creates a result whose fitness has not been computed
+	 * @param solution the improved solution
+	 * @param cost the cost of performing local search
+	 */
+	public LocalSearchResult(S solution, double cost) {
+		this(solution, cost, Double.NaN);
+	}
+	
+	/**
+	 * Indicates whether the fitness of the improved solution is provided
+	 * @return true if the fitness of the improved solution is provided
+	 */
+	public boolean isEvaluated() {
+		return !Double.isNaN(fitness);
+	}
 
 }
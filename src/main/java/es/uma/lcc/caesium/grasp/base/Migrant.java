@@ -0,0 +1,14 @@
+package es.uma.lcc.caesium.grasp.base;
+
+/**
+ * Information exchanged between islands of reactive GRASP: the best solution of
+ * the sender (given by its ranks) and its current probabilities of the RCL values.
+ * @param source the index of the sending island
+ * @param fitness the fitness of the best solution of the sender (infinity if none)
+ * @param ranks the ranks of the best solution of the sender (null if none)
+ * @param prob the probabilities of the RCL values of the sender
+ * @author ccottap
+ * @version 1.0
+ */
+public record Migrant(int source, double fitness, int[] ranks, double[] prob) {
+}
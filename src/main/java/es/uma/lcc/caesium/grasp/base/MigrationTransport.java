@@ -0,0 +1,27 @@
+package es.uma.lcc.caesium.grasp.base;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Transport of migrants between islands of reactive GRASP (see {@link ReactiveGRASP#setMigration(MigrationTransport, int, double)}).
+ * Sending does not wait for the receivers, and receiving does not wait for the senders.
+ * @author ccottap
+ * @version 1.0
+ */
+public interface MigrationTransport {
+	/**
+	 * Sends a migrant to the other islands
+	 * @param m the migrant (the source is set by the transport)
+	 * @throws IOException if the migrant cannot be sent
+	 */
+	void send(Migrant m) throws IOException;
+	
+	/**
+	 * Returns the migrants sent by the other islands since the last invocation
+	 * (at most the most recent one of each island)
+	 * @return the migrants received
+	 * @throws IOException if the migrants cannot be received
+	 */
+	List<Migrant> receive() throws IOException;
+}
@@ -1,13 +1,31 @@
 package es.uma.lcc.caesium.grasp.base;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import es.uma.lcc.caesium.grasp.statistics.GRASPSolutionEntry;
 import es.uma.lcc.caesium.grasp.statistics.GRASPStatistics;
 
 /**
@@ -32,6 +50,14 @@ public class ReactiveGRASP {
 	 * to avoid division by zero
 	 */
 	private static final double EPSILON1 = 1e-10;
+	/**
+	 * magic number of the checkpoint files ("GRCK")
+	 */
+	private static final int CHECKPOINT_MAGIC = 0x4752434B;
+	/**
+	 * version of the checkpoint files
+	 */
+	private static final int CHECKPOINT_VERSION = 1;
 	/**
 	 * Laplace-correction
 	 */
@@ -57,17 +83,29 @@ public class ReactiveGRASP {
 	 */
 	private double amplification = AMPLIFICATION;
 	/**
-	 * each of the values for the RCL 
+	 * value of the RCL parameter associated to each slot (in increasing order)
 	 */
-	private Map<Integer, Double> prob;
+	private int[] slotValue;
 	/**
-	 * cumulative score of each value  
+	 * probability of each slot 
 	 */
-	private Map<Integer, Double> score;
+	private double[] prob;
 	/**
-	 * number of times each value has been picked 
+	 * cumulative probability of each slot (used for sampling)
 	 */
-	private Map<Integer, Integer> count;
+	private double[] cumProb;
+	/**
+	 * cumulative score of each slot  
+	 */
+	private double[] score;
+	/**
+	 * number of times each slot has been picked 
+	 */
+	private int[] count;
+	/**
+	 * quality of each slot (auxiliary buffer for updating probabilities)
+	 */
+	private double[] quality;
 	/**
 	 * best fitness value so far
 	 */
@@ -80,29 +118,176 @@ public class ReactiveGRASP {
 	 * number of iterations
 	 */
 	private int numIters;
+	/**
+	 * stopping criterion (null = budget of numIters evaluations)
+	 */
+	private StoppingCriterion stoppingCriterion = null;
+	/**
+	 * progress of the current run
+	 */
+	private SearchState state = new SearchState();
 	/**
 	 * objective function
 	 */
-	private GRASPObjectiveFunction gof;
+	private TypedGRASPObjectiveFunction<Object> gof;
 	/**
 	 * Statistics
 	 */
 	private GRASPStatistics stats;
+	/**
+	 * best solution of the current run (published for other threads)
+	 */
+	private volatile GRASPSolutionEntry currentBest = null;
+	/**
+	 * listeners notified of improvements of the best solution
+	 */
+	private List<ImprovementListener> listeners = new CopyOnWriteArrayList<ImprovementListener>();
+	/**
+	 * number of worker threads used within a run (1 = sequential)
+	 */
+	private int numThreads = 1;
+	/**
+	 * size of the elite pool (0 = no path relinking)
+	 */
+	private int eliteSize = 0;
+	/**
+	 * minimum distance between a new member of the elite pool and the rest of the pool
+	 */
+	private int minEliteDistance = 1;
+	/**
+	 * maximum number of steps of path relinking (0 = up to the guiding solution)
+	 */
+	private int relinkingSteps = 0;
+	/**
+	 * elite pool of the current run (null if not used)
+	 */
+	private ElitePool elite = null;
+	/**
+	 * transport of migrants between islands (null = no migration)
+	 */
+	private MigrationTransport transport = null;
+	/**
+	 * number of updates of the probabilities between migrations
+	 */
+	private int migrationInterval = 1;
+	/**
+	 * weight of the probabilities of other islands when migrants are received
+	 */
+	private double migrationWeight = 0;
+	/**
+	 * file where the state of the run is saved (null = no checkpoints)
+	 */
+	private String checkpointFile = null;
+	/**
+	 * number of updates of the probabilities between checkpoints
+	 */
+	private int checkpointInterval = 1;
+	/**
+	 * runtime metrics (null = not collected)
+	 */
+	private GRASPMetrics metrics = null;
+	/**
+	 * index of the current run in the metrics
+	 */
+	private int metricsRun;
+	/**
+	 * slack of bounded construction (infinity = constructions are never aborted)
+	 */
+	private double constructionSlack = Double.POSITIVE_INFINITY;
+	/**
+	 * bound on the fitness of the constructions of the current block
+	 */
+	private double blockBound;
+	/**
+	 * maximum number of entries of the solution cache (0 = no cache)
+	 */
+	private int cacheSize = 0;
+	/**
+	 * solution cache of the current run (null if not used)
+	 */
+	private SolutionCache cache = null;
+	/**
+	 * whether each iteration of the current block was served by the cache
+	 */
+	private boolean[] blockCached;
+	/**
+	 * whether each iteration of the current block was skipped by the worker threads because the
+	 * stopping criterion was met
+	 */
+	private boolean[] blockSkipped;
+	/**
+	 * entries of the cache for the iterations of the current block, if processed concurrently
+	 */
+	private SolutionCache.Entry[] blockEntry;
+	/**
+	 * time at which each iteration of the current block (and all the previous ones) was completed by the 
+	 * worker threads
+	 */
+	private long[] blockTime;
+	/**
+	 * slots of the RCL values selected in each iteration of the current block
+	 */
+	private int[] blockSlots;
+	/**
+	 * ranks generated in each iteration of the current block
+	 */
+	private int[][] blockRanks;
+	/**
+	 * (improved) solutions obtained in each iteration of the current block
+	 */
+	private Object[] blockSols;
+	/**
+	 * fitness of the solutions obtained in each iteration of the current block
+	 */
+	private double[] blockFitness;
+	/**
+	 * local search cost incurred in each iteration of the current block
+	 */
+	private double[] blockCost;
+	/**
+	 * number of local search moves performed in each iteration of the current block
+	 */
+	private long[] blockMoves;
 	
 	/**
 	 * Creates the solver
 	 */
 	public ReactiveGRASP() {
-		prob = new HashMap<Integer, Double>();
-		score = new HashMap<Integer, Double>();
-		count = new HashMap<Integer, Integer>();
-		values = new HashSet<Integer>();
+		values = new TreeSet<Integer>();
 		laplace = 0;
 		gof = null;
 		stats = new GRASPStatistics();
 		setSeed(1);
 	}
 	
+	/**
+	 * Creates a solver with the same configuration as another one (RCL values,
+	 * objective function, number of iterations, update parameters, verbosity, 
+	 * stopping criterion, cache size, path relinking, metrics, improvement listeners, sampling of statistics and current seed). The RNG, the reactive state and the statistics are not shared.
+	 * @param other the solver whose configuration is copied
+	 */
+	public ReactiveGRASP(ReactiveGRASP other) {
+		this();
+		values.addAll(other.values);
+		laplace = other.laplace;
+		iterUpdate = other.iterUpdate;
+		amplification = other.amplification;
+		numIters = other.numIters;
+		stoppingCriterion = other.stoppingCriterion;
+		gof = other.gof;
+		verbosityLevel = other.verbosityLevel;
+		numThreads = other.numThreads;
+		cacheSize = other.cacheSize;
+		constructionSlack = other.constructionSlack;
+		metrics = other.metrics;
+		eliteSize = other.eliteSize;
+		minEliteDistance = other.minEliteDistance;
+		relinkingSteps = other.relinkingSteps;
+		listeners.addAll(other.listeners);
+		stats.setSamplingInterval(other.stats.getSamplingInterval());
+		setSeed(other.currentSeed);
+	}
+	
 	/**
 	 * Sets the seed for the RNG
 	 * @param seed the seed for the RNG
@@ -138,19 +323,187 @@ public class ReactiveGRASP {
 	}
 	
 	/**
-	 * Sets the number of iterations
+	 * Sets the number of iterations (actually, the budget of evaluations). It is 
+	 * only used if no stopping criterion has been set.
 	 * @param num number of iterations
 	 */
 	public void setNumIters (int num) {
 		numIters = num;
 	}
 	
+	/**
+	 * Sets the stopping criterion. It is checked after each iteration. If iterations are processed 
+	 * concurrently (see {@link #setNumThreads(int)}), the worker threads also check it before each
+	 * iteration of a block, so that time limits and cancellation take effect within the block. When the
+	 * results of the block are then processed in order, the criterion is checked as of the time at which 
+	 * each iteration was completed, so the iterations performed are those of the sequential case 
+	 * (save for the effect of time limits, which depends on the speed of the computation anyway).
+	 * @param criterion the stopping criterion (null = budget given by {@link #setNumIters(int)})
+	 */
+	public void setStoppingCriterion (StoppingCriterion criterion) {
+		stoppingCriterion = criterion;
+	}
+	
 	/**
 	 * Sets the objective function
 	 * @param gof the objective function
 	 */
 	public void setObjectiveFunction (GRASPObjectiveFunction gof) {
-		this.gof = gof;
+		this.gof = new GRASPObjectiveFunctionAdapter(gof);
+	}
+	
+	/**
+	 * Sets the objective function
+	 * @param gof the objective function
+	 */
+	@SuppressWarnings("unchecked")
+	public void setObjectiveFunction (TypedGRASPObjectiveFunction<?> gof) {
+		// solutions are only passed back to the function that created them
+		this.gof = (TypedGRASPObjectiveFunction<Object>) gof;
+	}
+	
+	/**
+	 * Sets the number of worker threads used within a run. If greater than 1, the 
+	 * iterations between two consecutive updates of the probabilities are decoded,
+	 * improved and evaluated concurrently. The result of the run is the same as
+	 * in the sequential case. The objective function must be thread-safe in this case.
+	 * @param numThreads the number of worker threads (1 = sequential)
+	 */
+	public void setNumThreads (int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+	
+	/**
+	 * Adds a listener to be notified whenever the best solution of a run improves
+	 * @param listener the listener
+	 */
+	public void addImprovementListener (ImprovementListener listener) {
+		listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener of improvements
+	 * @param listener the listener
+	 */
+	public void removeImprovementListener (ImprovementListener listener) {
+		listeners.remove(listener);
+	}
+	
+	/**
+	 * Sets the size of the solution cache. If positive, the outcome of each iteration (improved solution,
+	 * fitness and cost of the local search) is cached, keyed by the ranks, and iterations whose ranks 
+	 * are cached skip decoding, improvement and evaluation. They are charged the same evaluations as the 
+	 * original iteration, so the run is the same as without cache (save for computational times). The 
+	 * least recently used entry is evicted when the cache is full. This requires the objective function
+	 * to be deterministic and solutions not to be modified after being improved. Aborted constructions
+	 * (see {@link #setBoundedConstruction(double)}) are not cached, and cached iterations are never aborted, 
+	 * so the run may differ from that without cache if bounded construction is used.
+	 * <p>
+	 * If iterations are processed concurrently (see {@link #setNumThreads(int)}), the cache is still accessed 
+	 * in the order of the iterations, so that those of a block can be served by earlier ones of the same block, 
+	 * and the run and the hit counters are the same as in the sequential case. The only exception is bounded 
+	 * construction: aborted constructions take up an entry until the block is processed, which may evict others.
+	 * @param size the maximum number of cached iterations (0 = no cache)
+	 */
+	public void setCacheSize (int size) {
+		cacheSize = Math.max(0, size);
+	}
+	
+	/**
+	 * Sets bounded construction. If enabled, constructions are aborted as soon as the objective function 
+	 * determines that their fitness exceeds the best fitness so far by more than the given fraction of 
+	 * its absolute value (see {@link TypedGRASPObjectiveFunction#construct(int[], double)}); the slack 
+	 * accounts for the improvement that local search might achieve. An aborted construction is neither 
+	 * improved nor evaluated, and the lower bound of its fitness is taken as its fitness, so it is 
+	 * penalized in the update of the probabilities. It is charged the cost of a complete construction.
+	 * The bound is fixed at the beginning of each block of iterations, so the outcome does not depend 
+	 * on the number of threads.
+	 * @param slack the slack (non-negative), or infinity to disable bounded construction
+	 */
+	public void setBoundedConstruction (double slack) {
+		constructionSlack = Math.max(0, slack);
+	}
+	
+	/**
+	 * Sets the size of the elite pool. If positive, path relinking is performed in each iteration
+	 * from the improved solution towards a member of the elite pool picked at random, and both the
+	 * improved solution and the best solution in the path are offered to the pool. The cost of
+	 * path relinking is charged to the evaluations. Path relinking is performed sequentially, 
+	 * and requires the path relinking hooks of the objective function.
+	 * @param size the size of the elite pool (0 = no path relinking)
+	 */
+	public void setElitePoolSize (int size) {
+		eliteSize = Math.max(0, size);
+	}
+	
+	/**
+	 * Sets the minimum distance between a new member of the elite pool and the rest of the pool.
+	 * A solution closer to a member can only replace it, and only if it is better.
+	 * @param distance the minimum distance (at least 1)
+	 */
+	public void setMinEliteDistance (int distance) {
+		minEliteDistance = Math.max(1, distance);
+	}
+	
+	/**
+	 * Sets the maximum number of steps of path relinking
+	 * @param steps the maximum number of steps (0 = up to the guiding solution)
+	 */
+	public void setRelinkingSteps (int steps) {
+		relinkingSteps = Math.max(0, steps);
+	}
+	
+	/**
+	 * Sets the migration of the island model. Every given number of updates of the probabilities,
+	 * the best solution found so far and the probabilities are sent to the other islands, and 
+	 * the migrants sent by them are received. Received probabilities are averaged and blended with
+	 * the current ones with the given weight. Received solutions better than the best solution so far 
+	 * are decoded, improved and evaluated (this is charged to the evaluations as an iteration), 
+	 * and offered to the elite pool if any. The transport is not copied by {@link #ReactiveGRASP(ReactiveGRASP)}.
+	 * @param transport the transport of migrants (null = no migration)
+	 * @param interval number of updates of the probabilities between migrations
+	 * @param weight weight of the probabilities of other islands (between 0 and 1)
+	 */
+	public void setMigration (MigrationTransport transport, int interval, double weight) {
+		this.transport = transport;
+		migrationInterval = Math.max(1, interval);
+		migrationWeight = Math.min(1.0, Math.max(0.0, weight));
+	}
+	
+	/**
+	 * Sets the periodic checkpointing of runs. Every given number of updates of the probabilities, 
+	 * the state of the run (RNG, probabilities, scores, best solution, counters, elite pool and 
+	 * statistics) is saved to a file, which is replaced atomically. The run can then be continued 
+	 * with {@link #resume(String)}. Solutions must be serializable. The checkpoint file is not 
+	 * copied by {@link #ReactiveGRASP(ReactiveGRASP)}.
+	 * <p>
+	 * The snapshot includes all the statistics recorded so far (solutions included), so its size and
+	 * the cost of saving it grow with the length of the run and the number of runs completed. The interval 
+	 * should be set accordingly; sampling the statistics (see {@link GRASPStatistics#setSamplingInterval(int)})
+	 * also keeps the snapshot small.
+	 * @param filename the name of the checkpoint file (null = no checkpoints)
+	 * @param interval number of updates of the probabilities between checkpoints
+	 */
+	public void setCheckpoint (String filename, int interval) {
+		checkpointFile = filename;
+		checkpointInterval = Math.max(1, interval);
+	}
+	
+	/**
+	 * Sets the runtime metrics to be collected. The same metrics can be shared by several 
+	 * solvers (e.g., the copies used in parallel runs), in which case they are aggregated.
+	 * @param metrics the runtime metrics (null = not collected)
+	 */
+	public void setMetrics (GRASPMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Returns the runtime metrics
+	 * @return the runtime metrics (null if not collected)
+	 */
+	public GRASPMetrics getMetrics () {
+		return metrics;
 	}
 	
 	/**
@@ -163,100 +516,706 @@ public class ReactiveGRASP {
 	
 	/**
 	 * Runs the algorithm. Uses the current seed and increases it, so subsequent invocations will be different.
+	 * <p>
+	 * Iterations are processed in blocks of {@code iterUpdate} iterations, i.e., those between two updates of the 
+	 * probabilities. The RCL values and ranks of a block are generated first (these only depend on the current 
+	 * probabilities), and the corresponding solutions are then constructed and improved, either sequentially or 
+	 * concurrently by a pool of worker threads. Finally, the results are processed in order, so the outcome 
+	 * does not depend on the number of threads.
 	 */
 	public void run() {
+		run((GRASPRun)null);
+	}
+	
+	/**
+	 * Runs the algorithm asynchronously on a new thread. See {@link #runAsync(Executor)}.
+	 * @return the handle of the run
+	 */
+	public GRASPRun runAsync() {
+		return runAsync(r -> new Thread(r, "ReactiveGRASP").start());
+	}
+	
+	/**
+	 * Runs the algorithm asynchronously on a given executor. The run is performed as in {@link #run()}, 
+	 * and the handle is completed with the statistics of the solver when it is over. The solver must not 
+	 * be used for other runs until then. The best solution found so far can be queried from any thread 
+	 * during the run.
+	 * @param executor the executor on which the run is performed
+	 * @return the handle of the run
+	 */
+	public GRASPRun runAsync(Executor executor) {
+		GRASPRun handle = new GRASPRun(this);
+		executor.execute(() -> {
+			try {
+				run(handle);
+				handle.complete(stats);
+			}
+			catch (Throwable e) {
+				handle.fail(e);
+			}
+		});
+		return handle;
+	}
+	
+	/**
+	 * Runs the algorithm, stopping if the run is cancelled
+	 * @param handle the handle of the run (null if the run cannot be cancelled)
+	 */
+	private void run(GRASPRun handle) {
 		stats.newRun(currentSeed);
 		rng.setSeed(currentSeed++);
 				
-		prob.clear();
-		score.clear();
-		count.clear();
-		double p = 1.0 / (double)values.size();
-		for (int v: values) {
-			prob.put (v, p);
-			score.put(v, 0.0);
-			count.put(v, 0);
-		}
+		initParameters();
 		bestSoFar = Double.POSITIVE_INFINITY;
-		int n = gof.getNumberOfVariables();
-		List<Integer> ranks = new ArrayList<Integer> (n);
 		stats.takeProbStats(1, prob);
+		if (metrics != null) {
+			metricsRun = metrics.newRun(slotValue);
+			metrics.probabilities(metricsRun, prob);
+		}
+		state.start();
+		currentBest = null;
+		elite = (eliteSize > 0) ? new ElitePool(gof, eliteSize, minEliteDistance) : null;
+		search(handle, 0, 0, 0);
+	}
+	
+	/**
+	 * Performs the iterations of a run until the stopping criterion is met or the run is cancelled,
+	 * and closes the run
+	 * @param handle the handle of the run (null if the run cannot be cancelled)
+	 * @param iter number of iterations performed so far
+	 * @param evals number of evaluations performed so far
+	 * @param hits number of iterations served by the cache so far
+	 */
+	private void search(GRASPRun handle, int iter, double evals, long hits) {
+		int n = gof.getNumberOfVariables();
+		allocateBlock(n);
+		StoppingCriterion stop = (stoppingCriterion != null) ? stoppingCriterion : StoppingCriterion.maxEvaluations(numIters);
+		cache = (cacheSize > 0) ? new SolutionCache(cacheSize) : null;
 
-		double eq = gof.equivalentCost();
-		int iter = 0;
-		for (double evals = 0; evals < numIters; evals += eq) {
-			iter++;
-			int i = (int)evals;
-			int v = pick (prob);
-			ranks.clear();
-			for (int j=0; j<n; j++)
-				ranks.add(Math.min(rng.nextInt(v+1),n-j-1));
-
-			if (verbosityLevel > 1) {
-				System.out.println("value selected: " + v + "\tranks: " + ranks);
-			}
-			
-			Object sol = gof.decode(ranks);
-			var ls = gof.improve(sol);
-			evals += ls.cost();
-			double f = gof.evaluate(ls.solution());
-
-			if (verbosityLevel > 1) {
-				System.out.println("solution generated: " + f);
+		ExecutorService pool = (numThreads > 1) ? Executors.newFixedThreadPool(numThreads) : null;
+		try {
+			double eq = gof.equivalentCost();
+			boolean done = stop.isMet(state) || ((handle != null) && handle.isCancelled());
+			while (!done) {
+				for (int k=0; k<iterUpdate; k++) {
+					int slot = pick();
+					blockSlots[k] = slot;
+					int v = slotValue[slot];
+					int[] ranks = blockRanks[k];
+					for (int j=0; j<n; j++)
+						ranks[j] = Math.min(rng.nextInt(v+1),n-j-1);
+				}
+				blockBound = (Double.isInfinite(constructionSlack) || Double.isInfinite(bestSoFar)) ? Double.POSITIVE_INFINITY 
+							: bestSoFar + constructionSlack * Math.abs(bestSoFar);
+				if (pool != null) {
+					for (int k=0; k<iterUpdate; k++)
+						blockCached[k] = (cache != null) && reserve(k);
+					processBlock(pool, stop, handle);
+					if (cache != null) {
+						for (int k=0; k<iterUpdate; k++)
+							if (!blockCached[k] && !blockSkipped[k])
+								fill(k);
+					}
+				}
+				
+				for (int k=0; (k<iterUpdate) && !done; k++) {
+					iter++;
+					int i = (int)evals;
+					int slot = blockSlots[k];
+					int[] ranks = blockRanks[k];
+					
+					if (verbosityLevel > 1) {
+						System.out.println("value selected: " + slotValue[slot] + "\tranks: " + Arrays.toString(ranks));
+					}
+					
+					if (pool == null) {
+						blockCached[k] = (cache != null) && lookup(k);
+						if (!blockCached[k]) {
+							process(k);
+							if (cache != null)
+								store(k);
+						}
+					}
+					else if (blockSkipped[k]) {
+						process(k);
+						if (cache != null)
+							fill(k);
+					}
+					else if (blockCached[k]) {
+						load(k, blockEntry[k]);
+						blockCached[k] = (blockSols[k] != null);	// an aborted construction in the block, not a hit
+					}
+					if (blockCached[k])
+						hits++;
+					evals += eq + blockCost[k];
+					double f = blockFitness[k];
+					if (metrics != null)
+						metrics.iteration(slot, eq + blockCost[k], blockCost[k], blockMoves[k], blockCached[k]);
+		
+					if (verbosityLevel > 1) {
+						System.out.println("solution generated: " + f);
+					}
+					
+					stats.takeStats(i, f, ranks, blockSols[k]);
+					
+					if (f < bestSoFar) {
+						if (verbosityLevel > 0) {
+							System.out.println("new best solution " + f + " (was " + bestSoFar + ")");
+						}
+						bestSoFar = f;
+						publish(i, f, ranks, blockSols[k]);
+					}
+					double best = f;
+					if ((elite != null) && (blockSols[k] != null)) {
+						Object sol = blockSols[k];
+						if (elite.size() > 0) {
+							var pr = relink(sol, f, elite.get(rng.nextInt(elite.size())));
+							evals += pr.cost();
+							if (metrics != null)
+								metrics.evaluations(pr.cost());
+							if (pr.solution() != null) {
+								double fr = pr.fitness();
+								best = Math.min(best, fr);
+								if (fr < bestSoFar) {
+									if (verbosityLevel > 0) {
+										System.out.println("new best solution " + fr + " (was " + bestSoFar + ") by path relinking");
+									}
+									int[] r = gof.encode(pr.solution());
+									stats.takeStats((int)evals, fr, r, pr.solution());
+									bestSoFar = fr;
+									publish((int)evals, fr, r, pr.solution());
+								}
+								elite.offer(pr.solution(), fr);
+							}
+						}
+						elite.offer(sol, f);
+					}
+					blockSols[k] = null;
+					score[slot] += f;
+					count[slot]++;
+					if ((pool != null) && !blockSkipped[k])
+						state.observeAt(blockTime[k]);
+					state.update(evals, best);
+					done = stop.isMet(state) || ((handle != null) && handle.isCancelled());
+					state.observeNow();
+								
+					if (iter % iterUpdate == 0) {
+						update();
+						if ((transport != null) && ((iter / iterUpdate) % migrationInterval == 0)) {
+							double cost = migrate(evals);
+							evals += cost;
+							if (metrics != null)
+								metrics.evaluations(cost);
+							state.record(evals, bestSoFar);
+						}
+						stats.takeProbStats(i, prob);
+						if (metrics != null)
+							metrics.probabilities(metricsRun, prob);
+						if ((checkpointFile != null) && ((iter / iterUpdate) % checkpointInterval == 0))
+							checkpoint(iter, evals, hits);
+					}
+				}
 			}
+		}
+		finally {
+			if (pool != null)
+				pool.shutdown();
+			cache = null;
+			elite = null;
+		}
+		if (cacheSize > 0)
+			stats.takeCacheStats(hits, state.getIterations() - hits);
+		stats.closeRun();
+	}
+	
+	/**
+	 * Sends the best solution so far and the probabilities to the other islands, and 
+	 * processes the migrants received from them
+	 * @param evals number of evaluations so far
+	 * @return the cost of processing the migrants
+	 */
+	private double migrate(double evals) {
+		double cost = 0;
+		try {
+			GRASPSolutionEntry e = currentBest;
+			int[] bestRanks = (e == null) ? null : e.ranks().stream().mapToInt(Integer::intValue).toArray();
+			transport.send(new Migrant(-1, bestSoFar, bestRanks, prob.clone()));
+			List<Migrant> migrants = transport.receive();
 			
-			stats.takeStats(i, f, ranks, ls.solution());
-			
-			if (f < bestSoFar) {
-				if (verbosityLevel > 0) {
-					System.out.println("new best solution " + f + " (was " + bestSoFar + ")");
+			double[] avg = new double[prob.length];
+			int m = 0;
+			for (Migrant mig: migrants) {
+				if (mig.prob().length == prob.length) {
+					for (int slot=0; slot<prob.length; slot++)
+						avg[slot] += mig.prob()[slot];
+					m++;
+				}
+				if ((mig.ranks() != null) && (mig.fitness() < bestSoFar)) {
+					int[] ranks = mig.ranks();
+					var ls = iterate(ranks, Double.POSITIVE_INFINITY);
+					Object sol = ls.solution();
+					double f = ls.fitness();
+					cost += gof.equivalentCost() + ls.cost();
+					int iter = (int)(evals + cost);
+					stats.takeStats(iter, f, ranks, sol);
+					if (f < bestSoFar) {
+						if (verbosityLevel > 0) {
+							System.out.println("new best solution " + f + " (was " + bestSoFar + ") from island " + mig.source());
+						}
+						bestSoFar = f;
+						publish(iter, f, ranks, sol);
+					}
+					if (elite != null)
+						elite.offer(sol, f);
 				}
-				bestSoFar = f;
 			}
-			score.put(v, score.get(v) + f);
-			count.put(v, count.get(v) + 1);
-						
-			if (iter % iterUpdate == 0) {
-				update();
-				stats.takeProbStats(i, prob);
+			if ((m > 0) && (migrationWeight > 0)) {
+				for (int slot=0; slot<prob.length; slot++)
+					prob[slot] = (1.0 - migrationWeight) * prob[slot] + migrationWeight * avg[slot] / m;
+				accumulate();
 			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("migration failed", e);
 		}
-		stats.closeRun();
+		return cost;
 	}
 	
 	/**
-	 * Reactive update of parameter probabilities. 
+	 * Performs path relinking from a solution towards a guiding solution
+	 * @param from the initial solution
+	 * @param f the fitness of the initial solution
+	 * @param guide the guiding solution
+	 * @return the best solution in the path (excluding the initial one; null if the path is empty), 
+	 * its fitness and the cost of path relinking
 	 */
-	private void update() {
-		Map<Integer, Double> Q = new HashMap<Integer, Double>();
-		double sigma = 0;
-		int n0 = prob.size();
-		for (var e: score.entrySet()) {
-			int val = e.getKey();
-			double avg;
-			if (count.get(val) > 0)
-				avg = e.getValue()/count.get(val);
+	private LocalSearchResult<Object> relink(Object from, double f, Object guide) {
+		Object current = from;
+		double fc = f;
+		Object best = null;
+		double fb = Double.POSITIVE_INFINITY;
+		double cost = 0;
+		for (int step=0; (relinkingSteps == 0) || (step < relinkingSteps); step++) {
+			var next = gof.relinkStep(current, fc, guide);
+			if (next == null)
+				break;
+			cost += next.cost();
+			current = next.solution();
+			if (next.isEvaluated())
+				fc = next.fitness();
 			else {
-				n0--;
-				continue;
+				fc = gof.evaluate(current);
+				cost += 1;
 			}
-
-			double q = Math.pow(bestSoFar/(avg + EPSILON1), amplification);
-			Q.put(val, q);
-			sigma += q;
+			if (fc < fb) {
+				fb = fc;
+				best = current;
+			}
+		}
+		return new LocalSearchResult<Object>(best, cost, fb);
+	}
+	
+	/**
+	 * Publishes a new best solution of the current run and notifies the listeners
+	 * @param iter number of evaluations so far
+	 * @param f the fitness of the solution
+	 * @param ranks the ranks of the solution
+	 * @param sol the solution
+	 */
+	private void publish(int iter, double f, int[] ranks, Object sol) {
+		List<Integer> l = new ArrayList<Integer>(ranks.length);
+		for (int r: ranks)
+			l.add(r);
+		currentBest = new GRASPSolutionEntry(iter, f, Collections.unmodifiableList(l), sol, state.getElapsedTime());
+		if (metrics != null)
+			metrics.improved(f);
+		for (ImprovementListener listener: listeners)
+			listener.improved(currentBest);
+	}
+	
+	/**
+	 * Returns the best solution found so far in the current (or last) run. It can be
+	 * safely invoked from any thread while the run is in progress.
+	 * @return the best solution found so far (null if none yet)
+	 */
+	public Object getCurrentBest() {
+		GRASPSolutionEntry e = currentBest;
+		return (e == null) ? null : e.solution();
+	}
+	
+	/**
+	 * Returns the ranks of the best solution found so far in the current (or last) run. It can be
+	 * safely invoked from any thread while the run is in progress.
+	 * @return the ranks of the best solution found so far (null if none yet)
+	 */
+	public List<Integer> getCurrentBestRanks() {
+		GRASPSolutionEntry e = currentBest;
+		return (e == null) ? null : e.ranks();
+	}
+	
+	/**
+	 * Returns the fitness of the best solution found so far in the current (or last) run. It can be
+	 * safely invoked from any thread while the run is in progress.
+	 * @return the fitness of the best solution found so far (infinity if none yet)
+	 */
+	public double getCurrentBestFitness() {
+		GRASPSolutionEntry e = currentBest;
+		return (e == null) ? Double.POSITIVE_INFINITY : e.f();
+	}
+	
+	/**
+	 * Saves the state of the current run to the checkpoint file. The snapshot is written to a
+	 * temporary file first, which then replaces the checkpoint file atomically.
+	 * @param iter number of iterations performed so far
+	 * @param evals number of evaluations performed so far
+	 * @param hits number of iterations served by the cache so far
+	 */
+	private void checkpoint(int iter, double evals, long hits) {
+		Path file = Path.of(checkpointFile);
+		Path tmp = Path.of(checkpointFile + ".tmp");
+		try {
+			try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeInt(CHECKPOINT_MAGIC);
+				out.writeInt(CHECKPOINT_VERSION);
+				out.writeObject(slotValue);
+				out.writeInt(iterUpdate);
+				out.writeInt(gof.getNumberOfVariables());
+				out.writeLong(currentSeed);
+				out.writeObject(rng);
+				out.writeObject(prob);
+				out.writeObject(score);
+				out.writeObject(count);
+				out.writeDouble(bestSoFar);
+				out.writeInt(iter);
+				out.writeDouble(evals);
+				out.writeLong(hits);
+				state.write(out);
+				out.writeObject(currentBest);
+				out.writeBoolean(elite != null);
+				if (elite != null)
+					elite.write(out);
+				out.writeObject(stats);
+			}
+			Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new UncheckedIOException("cannot write checkpoint " + checkpointFile, e);
+		}
+		if (verbosityLevel > 1) {
+			System.out.println("checkpoint saved at " + (int)evals + " evaluations");
+		}
+	}
+	
+	/**
+	 * Resumes a run from a checkpoint (see {@link #setCheckpoint(String, int)}) and performs it until
+	 * the end. The solver must be configured as the one that saved the checkpoint (RCL values, objective 
+	 * function, update interval, elite pool, etc.). The run then follows exactly the same trajectory as 
+	 * if it had not been interrupted (save for computational times, time-based stopping criteria and 
+	 * cache counters, since the solution cache is not saved). The statistics of the solver are 
+	 * replaced by those saved in the checkpoint, which include the runs completed before it.
+	 * @param filename the name of the checkpoint file
+	 * @throws IOException if the checkpoint cannot be read or does not match the configuration of the solver
+	 */
+	public void resume(String filename) throws IOException {
+		int iter;
+		double evals;
+		long hits;
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(Path.of(filename))))) {
+			if ((in.readInt() != CHECKPOINT_MAGIC) || (in.readInt() != CHECKPOINT_VERSION))
+				throw new IOException(filename + " is not a GRASP checkpoint");
+			initParameters();
+			if (!Arrays.equals((int[])in.readObject(), slotValue) || (in.readInt() != iterUpdate) 
+					|| (in.readInt() != gof.getNumberOfVariables()))
+				throw new IOException(filename + " does not match the configuration of the solver");
+			currentSeed = in.readLong();
+			rng = (Random)in.readObject();
+			prob = (double[])in.readObject();
+			score = (double[])in.readObject();
+			count = (int[])in.readObject();
+			accumulate();
+			bestSoFar = in.readDouble();
+			iter = in.readInt();
+			evals = in.readDouble();
+			hits = in.readLong();
+			state.read(in);
+			currentBest = (GRASPSolutionEntry)in.readObject();
+			elite = null;
+			if (in.readBoolean()) {
+				if (eliteSize == 0)
+					throw new IOException(filename + " does not match the configuration of the solver");
+				elite = new ElitePool(gof, eliteSize, minEliteDistance);
+				elite.read(in);
+			}
+			stats = (GRASPStatistics)in.readObject();
+			if (metrics != null) {
+				metricsRun = metrics.newRun(slotValue);
+				metrics.probabilities(metricsRun, prob);
+				metrics.improved(bestSoFar);
+			}
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IOException(filename + " is not a valid GRASP checkpoint", e);
+		}
+		search(null, iter, evals, hits);
+	}
+	
+	/**
+	 * Initializes the reactive state: one slot per RCL value, with uniform
+	 * probabilities and no score.
+	 */
+	private void initParameters() {
+		int k = values.size();
+		slotValue = new int[k];
+		int slot = 0;
+		for (int v: values)
+			slotValue[slot++] = v;
+		prob = new double[k];
+		cumProb = new double[k];
+		score = new double[k];
+		count = new int[k];
+		quality = new double[k];
+		Arrays.fill(prob, 1.0 / (double)k);
+		accumulate();
+	}
+	
+	/**
+	 * Allocates the buffers used to store the iterations of a block
+	 * @param n the number of variables
+	 */
+	private void allocateBlock(int n) {
+		blockSlots = new int[iterUpdate];
+		blockRanks = new int[iterUpdate][n];
+		blockSols = new Object[iterUpdate];
+		blockFitness = new double[iterUpdate];
+		blockCost = new double[iterUpdate];
+		blockMoves = new long[iterUpdate];
+		blockCached = new boolean[iterUpdate];
+		blockSkipped = new boolean[iterUpdate];
+		blockEntry = new SolutionCache.Entry[iterUpdate];
+		blockTime = new long[iterUpdate];
+	}
+	
+	/**
+	 * Decodes, improves and evaluates the k-th iteration of the current block
+	 * @param k the index of the iteration within the block
+	 */
+	private void process(int k) {
+		if ((metrics != null) && metrics.isTimed(k)) {
+			processTimed(k);
+			return;
+		}
+		var ls = iterate(blockRanks[k], blockBound);
+		blockSols[k] = ls.solution();
+		blockCost[k] = ls.cost();
+		blockMoves[k] = ls.moves();
+		blockFitness[k] = ls.fitness();
+	}
+	
+	/**
+	 * Constructs, improves and evaluates a solution. The fitness is computed during construction
+	 * and local search if the objective function supports it, and by a separate evaluation otherwise.
+	 * @param ranks the rank of each decision
+	 * @param bound bound on the fitness of the construction (infinity = no bound)
+	 * @return the improved solution, the cost of local search and the fitness of the solution
+	 * (a null solution and a lower bound of its fitness if the construction is aborted)
+	 */
+	private LocalSearchResult<Object> iterate(int[] ranks, double bound) {
+		var c = construct(ranks, bound);
+		if (c.solution() == null)
+			return c;
+		var ls = gof.improve(c.solution(), c.fitness());
+		return ls.isEvaluated() ? ls : new LocalSearchResult<Object>(ls.solution(), ls.cost(), gof.evaluate(ls.solution()), ls.moves());
+	}
+	
+	/**
+	 * Decodes, improves and evaluates the k-th iteration of the current block, measuring the time of each step
+	 * @param k the index of the iteration within the block
+	 */
+	private void processTimed(int k) {
+		long t0 = System.nanoTime();
+		var c = construct(blockRanks[k], blockBound);
+		long t1 = System.nanoTime();
+		if (c.solution() == null) {
+			blockSols[k] = null;
+			blockCost[k] = 0;
+			blockMoves[k] = 0;
+			blockFitness[k] = c.fitness();
+			metrics.time(t1 - t0, 0, 0);
+			return;
+		}
+		var ls = gof.improve(c.solution(), c.fitness());
+		long t2 = System.nanoTime();
+		blockSols[k] = ls.solution();
+		blockCost[k] = ls.cost();
+		blockMoves[k] = ls.moves();
+		blockFitness[k] = ls.isEvaluated() ? ls.fitness() : gof.evaluate(ls.solution());
+		long t3 = System.nanoTime();
+		metrics.time(t1 - t0, t2 - t1, t3 - t2);
+	}
+	
+	/**
+	 * Constructs a solution, aborting if its fitness exceeds a bound
+	 * @param ranks the rank of each decision
+	 * @param bound bound on the fitness of the construction (infinity = no bound)
+	 * @return the solution and its fitness, if computed (a null solution and a lower bound of 
+	 * its fitness if the construction is aborted)
+	 */
+	private LocalSearchResult<Object> construct(int[] ranks, double bound) {
+		return (bound < Double.POSITIVE_INFINITY) ? gof.construct(ranks, bound) : gof.construct(ranks);
+	}
+	
+	/**
+	 * Retrieves the outcome of the k-th iteration of the current block from the cache
+	 * @param k the index of the iteration within the block
+	 * @return true if the ranks of the iteration were cached
+	 */
+	private boolean lookup(int k) {
+		SolutionCache.Entry e = cache.get(blockRanks[k]);
+		if (e == null)
+			return false;
+		load(k, e);
+		return true;
+	}
+	
+	/**
+	 * Sets the outcome of the k-th iteration of the current block
+	 * @param k the index of the iteration within the block
+	 * @param e the outcome
+	 */
+	private void load(int k, SolutionCache.Entry e) {
+		blockSols[k] = e.solution();
+		blockFitness[k] = e.fitness();
+		blockCost[k] = e.cost();
+		blockMoves[k] = 0;
+	}
+	
+	/**
+	 * Looks up the ranks of the k-th iteration of the current block in the cache, before the block is processed 
+	 * concurrently. If they are not cached, an entry is stored right away and its outcome is set once the
+	 * iteration is processed (see {@link #fill(int)}), so that the cache is accessed in the same order as in the 
+	 * sequential case, and later iterations of the block with the same ranks are served by it. 
+	 * @param k the index of the iteration within the block
+	 * @return true if the ranks of the iteration were cached
+	 */
+	private boolean reserve(int k) {
+		SolutionCache.Entry e = cache.get(blockRanks[k]);
+		boolean cached = (e != null);
+		if (!cached) {
+			e = new SolutionCache.Entry();
+			cache.put(blockRanks[k], e);
+		}
+		blockEntry[k] = e;
+		return cached;
+	}
+	
+	/**
+	 * Sets the outcome of the entry reserved for the k-th iteration of the current block (see 
+	 * {@link #reserve(int)}), or removes it if its construction was aborted
+	 * @param k the index of the iteration within the block
+	 */
+	private void fill(int k) {
+		blockEntry[k].set(blockSols[k], blockFitness[k], blockCost[k]);
+		if (blockSols[k] == null)
+			cache.remove(blockRanks[k]);
+	}
+	
+	/**
+	 * Stores the outcome of the k-th iteration of the current block in the cache, unless its
+	 * construction was aborted
+	 * @param k the index of the iteration within the block
+	 */
+	private void store(int k) {
+		if (blockSols[k] != null)
+			cache.put(blockRanks[k], new SolutionCache.Entry(blockSols[k], blockFitness[k], blockCost[k]));
+	}
+	
+	/**
+	 * Processes all iterations of the current block concurrently (except those served by the cache). Iterations are
+	 * dynamically distributed among the worker threads. Those starting once the stopping criterion is met
+	 * (given the state of the run at the beginning of the block) or the run is cancelled are skipped.
+	 * The time at which each iteration is completed is recorded, so that the stopping criterion can then 
+	 * be checked as if the iterations had been performed in order.
+	 * @param pool the pool of worker threads
+	 * @param stop the stopping criterion
+	 * @param handle the handle of the run (null if the run cannot be cancelled)
+	 */
+	private void processBlock(ExecutorService pool, StoppingCriterion stop, GRASPRun handle) {
+		AtomicInteger next = new AtomicInteger(0);
+		List<Callable<Void>> workers = new ArrayList<Callable<Void>>(numThreads);
+		for (int t=0; t<numThreads; t++) {
+			workers.add(() -> {
+				int k;
+				while ((k = next.getAndIncrement()) < iterUpdate) {
+					blockSkipped[k] = !blockCached[k] && (stop.isMet(state) || ((handle != null) && handle.isCancelled()));
+					if (!blockCached[k] && !blockSkipped[k])
+						process(k);
+					blockTime[k] = System.nanoTime();
+				}
+				return null;
+			});
+		}
+		try {
+			for (var w: pool.invokeAll(workers))
+				w.get();
+			for (int k=1; k<iterUpdate; k++)
+				blockTime[k] = Math.max(blockTime[k], blockTime[k-1]);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("run interrupted", e);
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		}
+	}
+	
+	/**
+	 * Returns the unchecked exception to be thrown when a task fails during execution
+	 * @param e the exception thrown by the executor
+	 * @return the original cause if unchecked, or an unchecked exception wrapping it otherwise
+	 */
+	private static RuntimeException unwrap(ExecutionException e) {
+		if (e.getCause() instanceof RuntimeException re)
+			return re;
+		if (e.getCause() instanceof Error err)
+			throw err;
+		return new IllegalStateException(e.getCause());
+	}
+	
+	/**
+	 * Reactive update of parameter probabilities. Package-private for benchmarking.
+	 */
+	void update() {
+		double sigma = 0;
+		int k = prob.length;
+		int n0 = k;
+		for (int slot=0; slot<k; slot++) {
+			if (count[slot] > 0) {
+				double avg = score[slot]/count[slot];
+				quality[slot] = Math.pow(bestSoFar/(avg + EPSILON1), amplification);
+				sigma += quality[slot];
+			}
+			else 
+				n0--;
 		}
 		double correct = EPSILON1 / n0;
 
-		for (var e: prob.entrySet()) {
-			int val = e.getKey();
-			if (count.get(val) > 0)
-				prob.put(val, laplace + (1.0-laplace)*(Q.get(val)+correct)/(sigma + EPSILON1));
+		for (int slot=0; slot<k; slot++) {
+			if (count[slot] > 0)
+				prob[slot] = laplace + (1.0-laplace)*(quality[slot]+correct)/(sigma + EPSILON1);
 			else
-				prob.put(val, laplace);
+				prob[slot] = laplace;
 		}
+		accumulate();
 
 		if (verbosityLevel > 1) {
-			System.out.println("Probabilities updated: " + prob);
+			System.out.println("Probabilities updated: " + Arrays.toString(prob));
+		}
+	}
+	
+	/**
+	 * Computes the cumulative probabilities of the slots
+	 */
+	private void accumulate() {
+		double acc = 0;
+		for (int slot=0; slot<prob.length; slot++) {
+			acc += prob[slot];
+			cumProb[slot] = acc;
 		}
 	}
 	
@@ -271,6 +1230,53 @@ public class ReactiveGRASP {
 		setSeed(oldSeed);
 	}
 	
+	/**
+	 * Performs several independent runs in parallel using a pool with a given number of threads. 
+	 * See {@link #run(int, ExecutorService)}.
+	 * @param numRuns the number of runs
+	 * @param numThreads the number of threads
+	 * @throws InterruptedException if interrupted while waiting for the runs to finish
+	 */
+	public void run (int numRuns, int numThreads) throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+		try {
+			run(numRuns, pool);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Performs several independent runs on a given executor. The k-th run (k = 0..numRuns-1) uses
+	 * seed currentSeed+k on its own copy of the solver, so the resulting statistics are the same 
+	 * as those of numRuns consecutive invocations of {@link #run()} (save for computational times).
+	 * The statistics are appended to those of this solver in seed order, and the current seed is
+	 * increased by numRuns. The objective function is shared by all runs and must therefore be thread-safe.
+	 * @param numRuns the number of runs
+	 * @param pool the executor on which the runs are performed
+	 * @throws InterruptedException if interrupted while waiting for the runs to finish
+	 */
+	public void run (int numRuns, ExecutorService pool) throws InterruptedException {
+		List<Future<GRASPStatistics>> results = new ArrayList<Future<GRASPStatistics>>(numRuns);
+		for (int k=0; k<numRuns; k++) {
+			ReactiveGRASP solver = new ReactiveGRASP(this);
+			solver.setSeed(currentSeed + k);
+			results.add(pool.submit(() -> {
+				solver.run();
+				return solver.getStatistics();
+			}));
+		}
+		currentSeed += numRuns;
+		for (var r: results) {
+			try {
+				stats.addRuns(r.get());
+			} catch (ExecutionException e) {
+				throw unwrap(e);
+			}
+		}
+	}
+	
 	/**
 	 * Return the statistics of the algorithm.
 	 * @return the statistics of the algorithm
@@ -279,21 +1285,32 @@ public class ReactiveGRASP {
 		return stats;
 	}
 	
+	/**
+	 * Returns the progress of the current run (or of the last one, if no run is active)
+	 * @return the progress of the run
+	 */
+	public SearchState getSearchState() {
+		return state;
+	}
+	
 
 	/**
-	 * Pick a parameter value given their probabilities
-	 * @param prob a map with elements and probabilities
-	 * @return an element selected with probability according to the map
+	 * Picks a slot given their probabilities, using binary search on the 
+	 * cumulative probabilities. Package-private for benchmarking.
+	 * @return a slot selected with probability according to {@code prob}
 	 */
-	private int pick(Map<Integer, Double> prob) {
+	int pick() {
 		double r = rng.nextDouble();
-		for (var e: prob.entrySet()) {
-			r -= e.getValue();
-			if (r <= 0)
-				return e.getKey();
+		int lo = 0;
+		int hi = cumProb.length - 1;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (r <= cumProb[mid])
+				hi = mid;
+			else
+				lo = mid + 1;
 		}
-		assert false;
-		return -1;
+		return lo;
 	}
 
 }
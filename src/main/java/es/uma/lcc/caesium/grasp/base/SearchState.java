@@ -0,0 +1,167 @@
+package es.uma.lcc.caesium.grasp.base;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Progress of a run of reactive GRASP, as seen by stopping criteria
+ * @author ccottap
+ * @version 1.0
+ */
+public class SearchState {
+	/**
+	 * number of iterations performed
+	 */
+	private int iterations;
+	/**
+	 * number of evaluations performed
+	 */
+	private double evaluations;
+	/**
+	 * best fitness found
+	 */
+	private double bestFitness;
+	/**
+	 * number of evaluations performed when the best fitness was found
+	 */
+	private double lastImprovement;
+	/**
+	 * time at the beginning of the run
+	 */
+	private long tic;
+	/**
+	 * whether the state is observed at a given time rather than at the current time
+	 */
+	private boolean fixed;
+	/**
+	 * time at which the state is observed (if fixed)
+	 */
+	private long toc;
+	
+	/**
+	 * Creates the state of a new run
+	 */
+	SearchState() {
+		start();
+	}
+	
+	/**
+	 * Resets the state at the beginning of a run
+	 */
+	void start() {
+		iterations = 0;
+		evaluations = 0;
+		bestFitness = Double.POSITIVE_INFINITY;
+		lastImprovement = 0;
+		tic = System.nanoTime();
+		fixed = false;
+	}
+	
+	/**
+	 * Sets the time at which the state is observed, e.g., when an iteration processed in advance 
+	 * was completed
+	 * @param time the time (as given by {@link System#nanoTime()})
+	 */
+	void observeAt(long time) {
+		fixed = true;
+		toc = time;
+	}
+	
+	/**
+	 * Observes the state at the current time again
+	 */
+	void observeNow() {
+		fixed = false;
+	}
+	
+	/**
+	 * Updates the state after an iteration
+	 * @param evals the number of evaluations performed so far
+	 * @param f the fitness of the solution obtained in the iteration
+	 */
+	void update(double evals, double f) {
+		iterations++;
+		record(evals, f);
+	}
+	
+	/**
+	 * Updates the state after some evaluations outside the iterations (e.g., migrations)
+	 * @param evals the number of evaluations performed so far
+	 * @param f the fitness of the best solution obtained in these evaluations
+	 */
+	void record(double evals, double f) {
+		evaluations = evals;
+		if (f < bestFitness) {
+			bestFitness = f;
+			lastImprovement = evals;
+		}
+	}
+	
+	/**
+	 * Returns the number of iterations performed
+	 * @return the number of iterations performed
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+	
+	/**
+	 * Returns the number of evaluations performed
+	 * @return the number of evaluations performed
+	 */
+	public double getEvaluations() {
+		return evaluations;
+	}
+	
+	/**
+	 * Returns the best fitness found
+	 * @return the best fitness found (infinity if none)
+	 */
+	public double getBestFitness() {
+		return bestFitness;
+	}
+	
+	/**
+	 * Returns the number of evaluations performed since the best fitness was found
+	 * @return the number of evaluations performed since the last improvement
+	 */
+	public double getEvaluationsSinceImprovement() {
+		return evaluations - lastImprovement;
+	}
+	
+	/**
+	 * Returns the time elapsed since the beginning of the run (up to the time at which the state is observed)
+	 * @return the elapsed time in seconds
+	 */
+	public double getElapsedTime() {
+		return ((fixed ? toc : System.nanoTime()) - tic) / 1e9;
+	}
+	
+	/**
+	 * Saves the state of the run
+	 * @param out the stream to write to
+	 * @throws IOException if the state cannot be written
+	 */
+	void write(DataOutput out) throws IOException {
+		out.writeInt(iterations);
+		out.writeDouble(evaluations);
+		out.writeDouble(bestFitness);
+		out.writeDouble(lastImprovement);
+		out.writeDouble(getElapsedTime());
+	}
+	
+	/**
+	 * Restores the state of a run. The elapsed time is resumed from the saved value.
+	 * @param in the stream to read from
+	 * @throws IOException if the state cannot be read
+	 */
+	void read(DataInput in) throws IOException {
+		iterations = in.readInt();
+		evaluations = in.readDouble();
+		bestFitness = in.readDouble();
+		lastImprovement = in.readDouble();
+		tic = System.nanoTime() - (long)(in.readDouble() * 1e9);
+		fixed = false;
+	}
+}
@@ -0,0 +1,174 @@
+package es.uma.lcc.caesium.grasp.base;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the outcome of the iterations of reactive GRASP (improved solution, fitness
+ * and cost of the local search), keyed by the rank vector. The least recently used entry is
+ * evicted when the capacity is exceeded. Lookups use a reusable probe key, so no objects
+ * are allocated unless an entry is stored. Not thread-safe.
+ * @author ccottap
+ * @version 1.1
+ */
+class SolutionCache {
+	/**
+	 * Key of the cache: a rank vector with its precomputed hash code
+	 */
+	private static final class Key {
+		/**
+		 * the rank vector
+		 */
+		private int[] ranks;
+		/**
+		 * hash code of the rank vector
+		 */
+		private int hash;
+
+		/**
+		 * Sets the rank vector of the key
+		 * @param ranks the rank vector (not copied)
+		 * @return the key itself
+		 */
+		Key set(int[] ranks) {
+			this.ranks = ranks;
+			hash = Arrays.hashCode(ranks);
+			return this;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return (o instanceof Key k) && (k.hash == hash) && Arrays.equals(k.ranks, ranks);
+		}
+	}
+
+	/**
+	 * Outcome of an iteration. It can be stored before being known, and set afterwards
+	 * (e.g., when the iteration is processed concurrently).
+	 */
+	static final class Entry {
+		/**
+		 * the improved solution
+		 */
+		private Object solution;
+		/**
+		 * the fitness of the improved solution
+		 */
+		private double fitness;
+		/**
+		 * the cost of the local search
+		 */
+		private double cost;
+
+		/**
+		 * Creates an outcome to be set afterwards
+		 */
+		Entry() {
+		}
+
+		/**
+		 * Creates an outcome
+		 * @param solution the improved solution
+		 * @param fitness the fitness of the improved solution
+		 * @param cost the cost of the local search
+		 */
+		Entry(Object solution, double fitness, double cost) {
+			set(solution, fitness, cost);
+		}
+
+		/**
+		 * Sets the outcome
+		 * @param solution the improved solution
+		 * @param fitness the fitness of the improved solution
+		 * @param cost the cost of the local search
+		 */
+		void set(Object solution, double fitness, double cost) {
+			this.solution = solution;
+			this.fitness = fitness;
+			this.cost = cost;
+		}
+
+		/**
+		 * Returns the improved solution
+		 * @return the improved solution
+		 */
+		Object solution() {
+			return solution;
+		}
+
+		/**
+		 * Returns the fitness of the improved solution
+		 * @return the fitness of the improved solution
+		 */
+		double fitness() {
+			return fitness;
+		}
+
+		/**
+		 * Returns the cost of the local search
+		 * @return the cost of the local search
+		 */
+		double cost() {
+			return cost;
+		}
+	}
+
+	/**
+	 * the entries, in access order
+	 */
+	private final LinkedHashMap<Key, Entry> map;
+	/**
+	 * key used for lookups
+	 */
+	private final Key probe = new Key();
+
+	/**
+	 * Creates an empty cache
+	 * @param capacity the maximum number of entries
+	 */
+	SolutionCache(int capacity) {
+		map = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the outcome associated to a rank vector
+	 * @param ranks the rank vector
+	 * @return the outcome of the iteration with these ranks (null if not cached)
+	 */
+	Entry get(int[] ranks) {
+		Entry e = map.get(probe.set(ranks));
+		probe.ranks = null;
+		return e;
+	}
+
+	/**
+	 * Stores the outcome associated to a rank vector
+	 * @param ranks the rank vector (copied)
+	 * @param e the outcome of the iteration with these ranks
+	 */
+	void put(int[] ranks, Entry e) {
+		map.put(new Key().set(ranks.clone()), e);
+	}
+
+	/**
+	 * Removes the outcome associated to a rank vector, if any
+	 * @param ranks the rank vector
+	 */
+	void remove(int[] ranks) {
+		map.remove(probe.set(ranks));
+		probe.ranks = null;
+	}
+}
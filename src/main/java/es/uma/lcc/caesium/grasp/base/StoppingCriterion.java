@@ -0,0 +1,99 @@
+package es.uma.lcc.caesium.grasp.base;
+
+/**
+ * Stopping criterion for reactive GRASP. It is checked after each iteration.
+ * Criteria can be combined with {@link #or(StoppingCriterion)} and {@link #and(StoppingCriterion)}.
+ * @author ccottap
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface StoppingCriterion {
+	/**
+	 * Indicates whether the run must stop
+	 * @param state the current state of the run
+	 * @return true if the run must stop
+	 */
+	boolean isMet(SearchState state);
+	
+	/**
+	 * Returns a criterion met when either this one or another one is met
+	 * @param other another criterion
+	 * @return the disjunction of both criteria
+	 */
+	default StoppingCriterion or(StoppingCriterion other) {
+		return state -> isMet(state) || other.isMet(state);
+	}
+	
+	/**
+	 * Returns a criterion met when both this one and another one are met
+	 * @param other another criterion
+	 * @return the conjunction of both criteria
+	 */
+	default StoppingCriterion and(StoppingCriterion other) {
+		return state -> isMet(state) && other.isMet(state);
+	}
+	
+	/**
+	 * Returns a criterion met when a number of evaluations is reached
+	 * @param evals the maximum number of evaluations
+	 * @return the criterion
+	 */
+	static StoppingCriterion maxEvaluations(double evals) {
+		return state -> state.getEvaluations() >= evals;
+	}
+	
+	/**
+	 * Returns a criterion met when some time has elapsed since the beginning of the run
+	 * @param seconds the maximum running time in seconds
+	 * @return the criterion
+	 */
+	static StoppingCriterion maxTime(double seconds) {
+		return state -> state.getElapsedTime() >= seconds;
+	}
+	
+	/**
+	 * Returns a criterion met when a solution at least as good as a target is found
+	 * @param target the target fitness
+	 * @return the criterion
+	 */
+	static StoppingCriterion targetFitness(double target) {
+		return state -> state.getBestFitness() <= target;
+	}
+	
+	/**
+	 * Returns a criterion met when the best solution has not improved for a number of evaluations
+	 * @param evals the maximum number of evaluations without improvement
+	 * @return the criterion
+	 */
+	static StoppingCriterion stagnation(double evals) {
+		return state -> state.getEvaluationsSinceImprovement() >= evals;
+	}
+	
+	/**
+	 * Returns a criterion met when any of a collection of criteria is met
+	 * @param criteria the criteria
+	 * @return the disjunction of the criteria
+	 */
+	static StoppingCriterion anyOf(StoppingCriterion... criteria) {
+		return state -> {
+			for (StoppingCriterion c: criteria)
+				if (c.isMet(state))
+					return true;
+			return false;
+		};
+	}
+	
+	/**
+	 * Returns a criterion met when all of a collection of criteria are met
+	 * @param criteria the criteria
+	 * @return the conjunction of the criteria
+	 */
+	static StoppingCriterion allOf(StoppingCriterion... criteria) {
+		return state -> {
+			for (StoppingCriterion c: criteria)
+				if (!c.isMet(state))
+					return false;
+			return true;
+		};
+	}
+}
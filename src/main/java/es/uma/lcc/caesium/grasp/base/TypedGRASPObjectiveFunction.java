@@ -0,0 +1,131 @@
+package es.uma.lcc.caesium.grasp.base;
+
+/**
+ * Objective function for GRASP with typed solutions. Ranks are passed as 
+ * primitive arrays, so no boxing or casts are required. Implementations may 
+ * evaluate solutions during local search (see {@link LocalSearchResult#fitness()}),
+ * in which case no separate evaluation is performed. Implementations of 
+ * {@link GRASPObjectiveFunction} can be used via {@link GRASPObjectiveFunctionAdapter}.
+ * <p>
+ * Implementations may also fuse construction and evaluation by overriding {@link #construct(int[])}
+ * and {@link #improve(Object, double)}, so that the fitness is accumulated while decoding and
+ * kept up to date during local search, and no separate evaluation pass is needed.
+ * <p>
+ * The methods {@link #distance(Object, Object)}, {@link #relinkStep(Object, double, Object)} and 
+ * {@link #encode(Object)} are only required for path relinking (see {@link ReactiveGRASP#setElitePoolSize(int)}).
+ * @param <S> the type of solutions
+ * @author ccottap
+ * @version 1.2
+ */
+public interface TypedGRASPObjectiveFunction<S> {
+	/**
+	 * Returns the number of decisions to create a solution
+	 * @return the number of decisions to create a solution
+	 */
+	int getNumberOfVariables();
+	
+	/**
+	 * Returns the number of function evaluations equivalent to
+	 * a single iteration of the construction phase. This is used
+	 * to provide a fair measure to compare to black-box optimization 
+	 * algorithms
+	 * @return the number of function evaluations equivalent to
+	 * a single iteration of the construction phase
+	 */
+	double equivalentCost();
+
+	/**
+	 * Decodes a sequence of ranks. The array must not be modified nor retained.
+	 * @param ranks the rank of each decision
+	 * @return the decoded solution
+	 */
+	S decode(int[] ranks);
+	
+	/**
+	 * Decodes a sequence of ranks as in {@link #decode(int[])}, and optionally computes the 
+	 * fitness of the solution along the way. The array must not be modified nor retained.
+	 * By default, the solution is just decoded.
+	 * @param ranks the rank of each decision
+	 * @return the decoded solution with cost = 0 and its fitness (NaN if it has not been computed)
+	 */
+	default LocalSearchResult<S> construct(int[] ranks) {
+		return new LocalSearchResult<S>(decode(ranks), 0);
+	}
+	
+	/**
+	 * Constructs a solution as in {@link #construct(int[])}, but the construction may be aborted
+	 * as soon as a lower bound of the fitness of the solution exceeds a given bound. This is used by
+	 * bounded construction (see {@link ReactiveGRASP#setBoundedConstruction(double)}).
+	 * By default, constructions are never aborted.
+	 * @param ranks the rank of each decision
+	 * @param bound the bound on the fitness
+	 * @return the result of {@link #construct(int[])}, or a null solution with cost = 0 and 
+	 * a lower bound of its fitness greater than the bound if the construction is aborted
+	 */
+	default LocalSearchResult<S> construct(int[] ranks, double bound) {
+		return construct(ranks);
+	}
+	
+	/**
+	 * Applies local improvement on a solution. Returns the improved solution
+	 * and the additional cost incurred, and optionally its fitness. If no local 
+	 * search is performed, the same solution and cost = 0 are returned.
+	 * @param sol the solution to be improved
+	 * @return an improved solution and the associated search cost
+	 */
+	LocalSearchResult<S> improve (S sol);
+	
+	/**
+	 * Applies local improvement on a solution whose fitness may be known, as in
+	 * {@link #improve(Object)}. The fitness of the improved solution can thus be obtained 
+	 * incrementally. By default, the fitness of the solution is ignored.
+	 * @param sol the solution to be improved
+	 * @param fitness the fitness of the solution (NaN if unknown)
+	 * @return an improved solution and the associated search cost
+	 */
+	default LocalSearchResult<S> improve (S sol, double fitness) {
+		return improve(sol);
+	}
+
+	/**
+	 * Returns the fitness of a solution
+	 * @param sol a solution
+	 * @return the fitness of the solution
+	 */
+	double evaluate(S sol);
+	
+	/**
+	 * Returns the distance between two solutions. Path relinking hook.
+	 * @param a a solution
+	 * @param b another solution
+	 * @return the distance between both solutions (0 if they are equal)
+	 */
+	default int distance(S a, S b) {
+		throw new UnsupportedOperationException("path relinking is not supported by " + getClass().getName());
+	}
+	
+	/**
+	 * Performs a step of path relinking, i.e., returns the best neighbor of a solution
+	 * among those closer to a guiding solution, along with the cost of the step and optionally
+	 * its fitness. The current solution must not be modified. Path relinking hook.
+	 * @param current the current solution
+	 * @param fitness the fitness of the current solution
+	 * @param guide the guiding solution
+	 * @return a neighbor of the current solution closer to the guiding solution and the cost of the
+	 * step, or null if both solutions are equal
+	 */
+	default LocalSearchResult<S> relinkStep(S current, double fitness, S guide) {
+		throw new UnsupportedOperationException("path relinking is not supported by " + getClass().getName());
+	}
+	
+	/**
+	 * Returns a sequence of ranks that is decoded into a given solution. It is used to 
+	 * record solutions found by path relinking in the statistics. Path relinking hook.
+	 * @param sol a solution
+	 * @return a sequence of ranks that is decoded into the solution
+	 */
+	default int[] encode(S sol) {
+		throw new UnsupportedOperationException("path relinking is not supported by " + getClass().getName());
+	}
+	
+}
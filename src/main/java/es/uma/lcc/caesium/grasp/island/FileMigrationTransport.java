@@ -0,0 +1,128 @@
+package es.uma.lcc.caesium.grasp.island;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import es.uma.lcc.caesium.grasp.base.Migrant;
+import es.uma.lcc.caesium.grasp.base.MigrationTransport;
+
+/**
+ * Transport of migrants through files in a shared directory. Each island writes its latest
+ * migrant to its own file, which is replaced atomically, so that other islands (possibly in
+ * other processes or nodes sharing the directory) never read partially written migrants.
+ * @author ccottap
+ * @version 1.0
+ */
+public class FileMigrationTransport implements MigrationTransport {
+	/**
+	 * magic number of the migrant files ("GRSM")
+	 */
+	private static final int MAGIC = 0x4752534D;
+	/**
+	 * prefix of the migrant files
+	 */
+	private static final String PREFIX = "island-";
+	/**
+	 * extension of the migrant files
+	 */
+	static final String EXTENSION = ".mig";
+	/**
+	 * the shared directory
+	 */
+	private final Path dir;
+	/**
+	 * index of this island
+	 */
+	private final int island;
+	/**
+	 * number of migrants sent by this island
+	 */
+	private long sequence;
+	/**
+	 * sequence number of the last migrant received from each island
+	 */
+	private final Map<Integer, Long> received;
+	
+	/**
+	 * Creates the transport of an island. The directory is created if it does not exist.
+	 * @param directory the shared directory
+	 * @param island the index of the island
+	 * @throws IOException if the directory cannot be created
+	 */
+	public FileMigrationTransport(String directory, int island) throws IOException {
+		dir = Files.createDirectories(Path.of(directory));
+		this.island = island;
+		sequence = 0;
+		received = new HashMap<Integer, Long>();
+	}
+
+	@Override
+	public void send(Migrant m) throws IOException {
+		int n = (m.ranks() == null) ? 0 : m.ranks().length;
+		int k = m.prob().length;
+		ByteBuffer buf = ByteBuffer.allocate(4*Integer.BYTES + Long.BYTES + Double.BYTES + n*Integer.BYTES + k*Double.BYTES);
+		buf.putInt(MAGIC).putInt(island).putLong(++sequence).putDouble(m.fitness());
+		buf.putInt((m.ranks() == null) ? -1 : n);
+		for (int j=0; j<n; j++)
+			buf.putInt(m.ranks()[j]);
+		buf.putInt(k);
+		for (double p: m.prob())
+			buf.putDouble(p);
+		
+		Path tmp = dir.resolve(PREFIX + island + ".tmp");
+		Files.write(tmp, buf.array());
+		Files.move(tmp, dir.resolve(PREFIX + island + EXTENSION), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	@Override
+	public List<Migrant> receive() throws IOException {
+		List<Migrant> migrants = new ArrayList<Migrant>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + EXTENSION)) {
+			for (Path file: files) {
+				String name = file.getFileName().toString();
+				int source;
+				try {
+					source = Integer.parseInt(name.substring(PREFIX.length(), name.length() - EXTENSION.length()));
+				} catch (NumberFormatException e) {
+					continue;		// not written by an island (e.g., a backup copy)
+				}
+				if (source == island)
+					continue;
+				ByteBuffer buf;
+				try {
+					buf = ByteBuffer.wrap(Files.readAllBytes(file));
+				} catch (NoSuchFileException e) {
+					continue;		// being replaced
+				}
+				if ((buf.getInt() != MAGIC) || (buf.getInt() != source))
+					throw new IOException(file + " is not a migrant file");
+				long seq = buf.getLong();
+				if (seq <= received.getOrDefault(source, 0L))
+					continue;
+				received.put(source, seq);
+				double fitness = buf.getDouble();
+				int n = buf.getInt();
+				int[] ranks = null;
+				if (n >= 0) {
+					ranks = new int[n];
+					for (int j=0; j<n; j++)
+						ranks[j] = buf.getInt();
+				}
+				double[] prob = new double[buf.getInt()];
+				for (int j=0; j<prob.length; j++)
+					prob[j] = buf.getDouble();
+				migrants.add(new Migrant(source, fitness, ranks, prob));
+			}
+		}
+		return migrants;
+	}
+}
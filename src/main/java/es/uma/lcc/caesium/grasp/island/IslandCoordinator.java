@@ -0,0 +1,95 @@
+package es.uma.lcc.caesium.grasp.island;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import es.uma.lcc.caesium.grasp.statistics.GRASPStatistics;
+
+/**
+ * Launches the islands of reactive GRASP as separate processes, waits for them to finish and
+ * merges their statistics. Islands running on other nodes can be merged as well, provided their
+ * statistics are written in binary format to a location accessible by the coordinator.
+ * @author ccottap
+ * @version 1.1
+ */
+public class IslandCoordinator {
+	/**
+	 * Returns the command to run a main class in a new JVM with the same options (e.g., heap size or
+	 * modules) and classpath as the current one
+	 * @param mainClass the main class
+	 * @param args the command-line arguments of the main class
+	 * @return the command
+	 */
+	public static List<String> javaCommand(String mainClass, String... args) {
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(mainClass);
+		command.addAll(List.of(args));
+		return command;
+	}
+	
+	/**
+	 * Removes the migrants left in a shared directory (and its subdirectories) by previous executions
+	 * @param directory the shared directory
+	 * @throws IOException if the migrants cannot be removed
+	 */
+	public static void clean(String directory) throws IOException {
+		Path dir = Path.of(directory);
+		if (!Files.isDirectory(dir))
+			return;
+		try (Stream<Path> files = Files.walk(dir)) {
+			for (Path file: (Iterable<Path>)files::iterator)
+				if (file.getFileName().toString().endsWith(FileMigrationTransport.EXTENSION))
+					Files.delete(file);
+		}
+	}
+	
+	/**
+	 * Launches a process per island and waits for all of them to finish. The output of the
+	 * processes is redirected to that of the coordinator.
+	 * @param commands the command of each island
+	 * @throws IOException if a process cannot be started or finishes abnormally
+	 * @throws InterruptedException if interrupted while waiting (the processes are then destroyed)
+	 */
+	public static void launch(List<List<String>> commands) throws IOException, InterruptedException {
+		List<Process> islands = new ArrayList<Process>(commands.size());
+		try {
+			for (List<String> command: commands)
+				islands.add(new ProcessBuilder(command).inheritIO().start());
+			for (int k=0; k<islands.size(); k++) {
+				int status = islands.get(k).waitFor();
+				if (status != 0)
+					throw new IOException("island " + k + " finished with status " + status);
+			}
+		}
+		finally {
+			for (Process p: islands)
+				p.destroy();
+		}
+	}
+	
+	/**
+	 * Merges the statistics of the islands. The islands cooperate in each run, so the i-th run of
+	 * the merged statistics combines the i-th run of every island (see {@link GRASPStatistics#addMergedRuns(List)}).
+	 * @param filenames the files with the statistics of each island (in binary format)
+	 * @return the merged statistics
+	 * @throws IOException if a file cannot be read
+	 */
+	public static GRASPStatistics merge(List<String> filenames) throws IOException {
+		List<GRASPStatistics> islands = new ArrayList<GRASPStatistics>(filenames.size());
+		for (String filename: filenames)
+			islands.add(GRASPStatistics.readBinary(filename));
+		GRASPStatistics stats = new GRASPStatistics();
+		stats.addMergedRuns(islands);
+		return stats;
+	}
+}
@@ -0,0 +1,6 @@
+/**
+ * Island model of reactive GRASP across processes
+ * @author ccottap
+ * @version 1.0
+ */
+package es.uma.lcc.caesium.grasp.island;
@@ -1,5 +1,6 @@
 package es.uma.lcc.caesium.grasp.statistics;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
@@ -9,5 +10,5 @@ import java.util.List;
  * @author ccottap
  * @version 1.0
  */
-public record GRASPProbabilityEntry(int iter, List<Double> prob) {
+public record GRASPProbabilityEntry(int iter, List<Double> prob) implements Serializable {
 }
@@ -1,5 +1,6 @@
 package es.uma.lcc.caesium.grasp.statistics;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
@@ -8,8 +9,19 @@ import java.util.List;
  * @param f fitness of the best solution so far
  * @param ranks the ranks of the best solution so far
  * @param solution the best solution so far
+ * @param time the time (in seconds) elapsed since the beginning of the run (NaN if unknown)
  * @author ccottap
- * @version 1.0
+ * @version 1.1
  */
-public record GRASPSolutionEntry(int iter, double f, List<Integer> ranks, Object solution) {
+public record GRASPSolutionEntry(int iter, double f, List<Integer> ranks, Object solution, double time) implements Serializable {
+	/**
+	 * Creates an entry with unknown time
+	 * @param iter the current iteration
+	 * @param f fitness of the best solution so far
+	 * @param ranks the ranks of the best solution so far
+	 * @param solution the best solution so far
+	 */
+	public GRASPSolutionEntry(int iter, double f, List<Integer> ranks, Object solution) {
+		this(iter, f, ranks, solution, Double.NaN);
+	}
 }
@@ -1,9 +1,22 @@
 package es.uma.lcc.caesium.grasp.statistics;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import com.github.cliftonlabs.json_simple.JsonArray;
 import com.github.cliftonlabs.json_simple.JsonObject;
@@ -14,15 +27,27 @@ import com.github.cliftonlabs.json_simple.JsonObject;
  * @author ccottap
  * @version 1.0
  */
-public class GRASPStatistics {
+public class GRASPStatistics implements Serializable {
+	/**
+	 * for serialization
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * magic number of the binary format ("GRSB")
+	 */
+	private static final int BINARY_MAGIC = 0x47525342;
+	/**
+	 * version of the binary format
+	 */
+	private static final int BINARY_VERSION = 1;
 	/**
 	 * Fitness statistics
 	 */
-	private List<List<GRASPStatisticEntry>> stats;
+	private List<GRASPTrace> stats;
 	/**
 	 * Fitness statistics of the current run
 	 */
-	private List<GRASPStatisticEntry> currentStats;
+	private GRASPTrace currentStats;
 	/**
 	 * Solution statistics
 	 */
@@ -43,6 +68,22 @@ public class GRASPStatistics {
 	 * current best
 	 */
 	private double currentBest;
+	/**
+	 * sampling interval (in evaluations) of the fitness and probability statistics (0 = record all)
+	 */
+	private int samplingInterval = 0;
+	/**
+	 * next evaluation at which the fitness is sampled in the current run
+	 */
+	private long nextSample;
+	/**
+	 * next evaluation at which the probabilities are sampled in the current run
+	 */
+	private long nextProbSample;
+	/**
+	 * last iteration whose fitness statistics were not recorded in the current run (-1 if none)
+	 */
+	private int pendingIter;
 	/**
 	 * list of seeds used in each run
 	 */
@@ -56,9 +97,29 @@ public class GRASPStatistics {
 	 */
 	private List<Double> runtime;
 	/**
-	 * time at the beginning of a run
+	 * number of iterations served by the solution cache in each run
+	 */
+	private List<Long> cacheHits;
+	/**
+	 * number of iterations not served by the solution cache in each run
+	 */
+	private List<Long> cacheMisses;
+	/**
+	 * number of iterations served by the solution cache in the current run
+	 */
+	private long currentHits;
+	/**
+	 * number of iterations not served by the solution cache in the current run
+	 */
+	private long currentMisses;
+	/**
+	 * time at the beginning of a run (relative to the current JVM, hence not serialized)
+	 */
+	private transient long tic;
+	/**
+	 * time elapsed in the current run when serialized
 	 */
-	private long tic;
+	private double elapsedAtSave;
 	/**
 	 * time at the end of a run
 	 */
@@ -81,7 +142,7 @@ public class GRASPStatistics {
 	 * Clears all statistics
 	 */
 	public void clear() {
-		stats = new ArrayList<List<GRASPStatisticEntry>> ();
+		stats = new ArrayList<GRASPTrace> ();
 		currentStats = null;
 		sols = new ArrayList<List<GRASPSolutionEntry>> ();
 		currentSols = null;
@@ -89,9 +150,32 @@ public class GRASPStatistics {
 		currentProbs = null;
 		seeds = new LinkedList<Long>();
 		runtime = new LinkedList<Double>();
+		cacheHits = new ArrayList<Long>();
+		cacheMisses = new ArrayList<Long>();
 		runActive = false;	
 	}
 	
+	/**
+	 * Sets the sampling interval of the statistics. If 0 (the default), the best fitness is recorded 
+	 * in every iteration, and the probabilities in every update. Otherwise, the best fitness is only 
+	 * recorded when it improves and at the first iteration after every multiple of the interval (and
+	 * at the end of the run), and the probabilities at the first update after every multiple of the 
+	 * interval. Memory usage then depends on the number of improvements rather than on the length 
+	 * of the run. The layout of the statistics is not affected.
+	 * @param interval the sampling interval, measured in evaluations (0 = record all)
+	 */
+	public void setSamplingInterval(int interval) {
+		samplingInterval = Math.max(0, interval);
+	}
+	
+	/**
+	 * Returns the sampling interval of the statistics
+	 * @return the sampling interval, measured in evaluations (0 = record all)
+	 */
+	public int getSamplingInterval() {
+		return samplingInterval;
+	}
+	
 	/**
 	 * Logs the start of a new run
 	 * @param s the current seed
@@ -99,11 +183,16 @@ public class GRASPStatistics {
 	public void newRun(long s) {
 		if (runActive)
 			closeRun();
-		currentStats = new ArrayList<GRASPStatisticEntry> ();
+		currentStats = new GRASPTrace();
 		currentSols = new ArrayList<GRASPSolutionEntry>();	
 		currentProbs = new ArrayList<GRASPProbabilityEntry>();	
 		runActive = true;
 		currentBest = Double.POSITIVE_INFINITY;
+		nextSample = 0;
+		nextProbSample = 0;
+		pendingIter = -1;
+		currentHits = 0;
+		currentMisses = 0;
 		currentSeed = s;
 		tic = System.nanoTime();
 	}
@@ -114,9 +203,13 @@ public class GRASPStatistics {
 	 */
 	public void closeRun() {
 		if (runActive) {
+			if (pendingIter >= 0)
+				currentStats.add(pendingIter, currentBest);
 			seeds.add(currentSeed);
 			toc = System.nanoTime();
 			runtime.add((toc-tic)/1e9);
+			cacheHits.add(currentHits);
+			cacheMisses.add(currentMisses);
 			stats.add(currentStats);
 			sols.add(currentSols);
 			probs.add(currentProbs);
@@ -126,6 +219,125 @@ public class GRASPStatistics {
 		runActive = false;
 	}
 	
+	/**
+	 * Appends the (closed) runs recorded in another statistics object to this one,
+	 * preserving their order. Any active run in the other object is not appended.
+	 * @param other the statistics whose runs are appended
+	 */
+	public void addRuns(GRASPStatistics other) {
+		if (runActive)
+			closeRun();
+		seeds.addAll(other.seeds);
+		runtime.addAll(other.runtime);
+		cacheHits.addAll(other.cacheHits);
+		cacheMisses.addAll(other.cacheMisses);
+		stats.addAll(other.stats);
+		sols.addAll(other.sols);
+		probs.addAll(other.probs);
+	}
+	
+	/**
+	 * Appends runs that combine the (closed) runs performed concurrently by several cooperating solvers, 
+	 * e.g., the islands of a distributed run: the i-th run appended combines the i-th run of each solver. 
+	 * Its seed is that of the first solver, its time is the longest one, and the cache counters are added up.
+	 * Iterations are counted by each solver, so the best fitness at an iteration is the best of all solvers 
+	 * at that iteration, the solutions recorded are the improvements of that fitness, and the probabilities 
+	 * at an iteration are averaged over the solvers that recorded them.
+	 * @param parts the statistics of each solver, all of them with the same number of runs
+	 */
+	public void addMergedRuns(List<GRASPStatistics> parts) {
+		if (runActive)
+			closeRun();
+		if (parts.isEmpty())
+			return;
+		int numRuns = parts.get(0).getNumRuns();
+		for (GRASPStatistics part: parts) {
+			if (part.getNumRuns() != numRuns)
+				throw new IllegalArgumentException("the statistics to merge have different numbers of runs");
+		}
+		for (int i=0; i<numRuns; i++) {
+			double time = 0;
+			long hits = 0;
+			long misses = 0;
+			List<GRASPTrace> traces = new ArrayList<GRASPTrace>(parts.size());
+			List<GRASPSolutionEntry> entries = new ArrayList<GRASPSolutionEntry>();
+			TreeMap<Integer, double[]> probSum = new TreeMap<Integer, double[]>();
+			TreeMap<Integer, Integer> probCount = new TreeMap<Integer, Integer>();
+			for (GRASPStatistics part: parts) {
+				time = Math.max(time, part.getTime(i));
+				hits += part.getCacheHits(i);
+				misses += part.getCacheMisses(i);
+				traces.add(part.stats.get(i));
+				entries.addAll(part.sols.get(i));
+				for (GRASPProbabilityEntry e: part.probs.get(i)) {
+					double[] sum = probSum.computeIfAbsent(e.iter(), k -> new double[e.prob().size()]);
+					if (sum.length != e.prob().size())
+						continue;
+					for (int slot=0; slot<sum.length; slot++)
+						sum[slot] += e.prob().get(slot);
+					probCount.merge(e.iter(), 1, Integer::sum);
+				}
+			}
+			
+			entries.sort(Comparator.comparingInt(GRASPSolutionEntry::iter).thenComparingDouble(GRASPSolutionEntry::time));
+			List<GRASPSolutionEntry> improvements = new ArrayList<GRASPSolutionEntry>();
+			double best = Double.POSITIVE_INFINITY;
+			for (GRASPSolutionEntry e: entries) {
+				if (e.f() < best) {
+					best = e.f();
+					improvements.add(e);
+				}
+			}
+			
+			List<GRASPProbabilityEntry> merged = new ArrayList<GRASPProbabilityEntry>(probSum.size());
+			for (var e: probSum.entrySet()) {
+				int m = probCount.get(e.getKey());
+				List<Double> l = new ArrayList<Double>(e.getValue().length);
+				for (double p: e.getValue())
+					l.add(p / m);
+				merged.add(new GRASPProbabilityEntry(e.getKey(), l));
+			}
+			
+			seeds.add(parts.get(0).seeds.get(i));
+			runtime.add(time);
+			cacheHits.add(hits);
+			cacheMisses.add(misses);
+			stats.add(mergeTraces(traces));
+			sols.add(improvements);
+			probs.add(merged);
+		}
+	}
+	
+	/**
+	 * Merges the traces of runs performed concurrently: at each iteration recorded in any of them,
+	 * the best fitness is the best of all traces up to that iteration
+	 * @param traces the traces
+	 * @return the merged trace
+	 */
+	private static GRASPTrace mergeTraces(List<GRASPTrace> traces) {
+		int[] pos = new int[traces.size()];
+		double[] best = new double[traces.size()];
+		Arrays.fill(best, Double.POSITIVE_INFINITY);
+		GRASPTrace merged = new GRASPTrace();
+		while (true) {
+			int iter = Integer.MAX_VALUE;
+			for (int k=0; k<pos.length; k++) {
+				if (pos[k] < traces.get(k).size())
+					iter = Math.min(iter, traces.get(k).iter(pos[k]));
+			}
+			if (iter == Integer.MAX_VALUE)
+				break;
+			double f = Double.POSITIVE_INFINITY;
+			for (int k=0; k<pos.length; k++) {
+				GRASPTrace t = traces.get(k);
+				while ((pos[k] < t.size()) && (t.iter(pos[k]) == iter))
+					best[k] = t.best(pos[k]++);
+				f = Math.min(f, best[k]);
+			}
+			merged.add(iter, f);
+		}
+		return merged;
+	}
 	
 	/**
 	 * Takes statistics at a given time
@@ -135,11 +347,105 @@ public class GRASPStatistics {
 	 * @param solution the last solution generated
 	 */
 	public void takeStats(int iter, double f, List<Integer> ranks, Object solution) {
-		currentStats.add(new GRASPStatisticEntry(iter, Math.min(currentBest, f)));
+		if (f < currentBest)
+			currentSols.add(new GRASPSolutionEntry(iter, f, new ArrayList<Integer>(ranks), solution, elapsed()));
+		recordFitness(iter, f);
+	}
+	
+	/**
+	 * Takes statistics at a given time
+	 * @param iter number of iterations so far
+	 * @param f the fitness of the last solution generated
+	 * @param ranks the ranks of the last solution generated (copied only if the solution is recorded)
+	 * @param solution the last solution generated
+	 */
+	public void takeStats(int iter, double f, int[] ranks, Object solution) {
 		if (f < currentBest) {
+			List<Integer> l = new ArrayList<Integer>(ranks.length);
+			for (int r: ranks)
+				l.add(r);
+			currentSols.add(new GRASPSolutionEntry(iter, f, l, solution, elapsed()));
+		}
+		recordFitness(iter, f);
+	}
+	
+	/**
+	 * Returns the time elapsed since the beginning of the current run
+	 * @return the elapsed time in seconds
+	 */
+	private double elapsed() {
+		return (System.nanoTime() - tic) / 1e9;
+	}
+	
+	/**
+	 * Saves the statistics. The time elapsed in the current run is saved instead of its start time.
+	 * @param out the stream to write to
+	 * @throws IOException if the statistics cannot be written
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		elapsedAtSave = runActive ? elapsed() : 0;
+		out.defaultWriteObject();
+	}
+	
+	/**
+	 * Restores the statistics. The time elapsed in the current run is resumed from the saved value.
+	 * @param in the stream to read from
+	 * @throws IOException if the statistics cannot be read
+	 * @throws ClassNotFoundException if the class of a solution is not found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		tic = System.nanoTime() - (long)(elapsedAtSave * 1e9);
+	}
+	
+	/**
+	 * Updates the current best fitness and records it (subject to sampling) 
+	 * @param iter number of iterations so far
+	 * @param f the fitness of the last solution generated
+	 */
+	private void recordFitness(int iter, double f) {
+		boolean improved = f < currentBest;
+		if (improved) 
 			currentBest = f;
-			currentSols.add(new GRASPSolutionEntry(iter, f, new ArrayList<Integer>(ranks), solution));
+		if ((samplingInterval == 0) || improved || (iter >= nextSample)) {
+			currentStats.add(iter, currentBest);
+			nextSample = nextMultiple(iter);
+			pendingIter = -1;
 		}
+		else
+			pendingIter = iter;
+	}
+	
+	/**
+	 * Takes statistics of the solution cache in the current run
+	 * @param hits number of iterations served by the cache
+	 * @param misses number of iterations not served by the cache
+	 */
+	public void takeCacheStats(long hits, long misses) {
+		currentHits += hits;
+		currentMisses += misses;
+	}
+	
+	/**
+	 * Returns the first multiple of the sampling interval after a given iteration
+	 * @param iter the iteration
+	 * @return the first multiple of the sampling interval greater than iter
+	 */
+	private long nextMultiple(int iter) {
+		return (samplingInterval == 0) ? 0 : ((long)iter / samplingInterval + 1) * samplingInterval;
+	}
+	
+	/**
+	 * Indicates whether the probabilities have to be recorded at a given iteration
+	 * @param iter number of iterations so far
+	 * @return true if the probabilities have to be recorded
+	 */
+	private boolean sampleProbs(int iter) {
+		if ((samplingInterval == 0) || currentProbs.isEmpty() || (iter >= nextProbSample)) {
+			nextProbSample = nextMultiple(iter);
+			return true;
+		}
+		return false;
 	}
 	
 	/**
@@ -148,7 +454,22 @@ public class GRASPStatistics {
 	 * @param prob the probabilities of each parameter
 	 */
 	public void takeProbStats (int iter, Map<Integer, Double> prob) {
-		currentProbs.add(new GRASPProbabilityEntry(iter, new ArrayList<Double>(prob.values())));
+		if (sampleProbs(iter))
+			currentProbs.add(new GRASPProbabilityEntry(iter, new ArrayList<Double>(prob.values())));
+	}
+	
+	/**
+	 * Takes statistics at a given time of the GRASP probabilities
+	 * @param iter number of iterations so far
+	 * @param prob the probabilities of each parameter
+	 */
+	public void takeProbStats (int iter, double[] prob) {
+		if (!sampleProbs(iter))
+			return;
+		List<Double> l = new ArrayList<Double>(prob.length);
+		for (double p: prob)
+			l.add(p);
+		currentProbs.add(new GRASPProbabilityEntry(iter, l));
 	}
 	
 	
@@ -254,6 +575,64 @@ public class GRASPStatistics {
 		return l.get(l.size()-1).solution();
 	}
 	
+	/**
+	 * Returns the evolution of the best fitness in a given run
+	 * @param i the index of the run
+	 * @return the list of best fitness values recorded in the i-th run
+	 */
+	public List<GRASPStatisticEntry> getTrace(int i) {
+		GRASPTrace trace = stats.get(i);
+		List<GRASPStatisticEntry> l = new ArrayList<GRASPStatisticEntry>(trace.size());
+		for (int k=0; k<trace.size(); k++)
+			l.add(new GRASPStatisticEntry(trace.iter(k), trace.best(k)));
+		return l;
+	}
+	
+	/**
+	 * Returns the first improvement of a given run that reaches a target fitness
+	 * @param i the index of the run
+	 * @param target the target fitness
+	 * @return the first solution entry of the i-th run whose fitness is not worse than the target (null if none)
+	 */
+	private GRASPSolutionEntry firstToTarget(int i, double target) {
+		for (GRASPSolutionEntry e: sols.get(i))
+			if (e.f() <= target)
+				return e;
+		return null;
+	}
+	
+	/**
+	 * Returns the time needed to reach a target fitness in a given run. 
+	 * @param i the index of the run
+	 * @param target the target fitness
+	 * @return the time (in seconds) when a solution not worse than the target was first found 
+	 * in the i-th run (infinity if the target was not reached, NaN if unknown)
+	 */
+	public double getTimeToTarget(int i, double target) {
+		GRASPSolutionEntry e = firstToTarget(i, target);
+		return (e == null) ? Double.POSITIVE_INFINITY : e.time();
+	}
+	
+	/**
+	 * Returns the number of evaluations needed to reach a target fitness in a given run. 
+	 * @param i the index of the run
+	 * @param target the target fitness
+	 * @return the number of evaluations when a solution not worse than the target was first found 
+	 * in the i-th run (-1 if the target was not reached)
+	 */
+	public int getEvaluationsToTarget(int i, double target) {
+		GRASPSolutionEntry e = firstToTarget(i, target);
+		return (e == null) ? -1 : e.iter();
+	}
+	
+	/**
+	 * Returns the number of (closed) runs
+	 * @return the number of runs recorded
+	 */
+	public int getNumRuns() {
+		return stats.size();
+	}
+	
 	/**
 	 * Returns the CPU time of a certain run
 	 * @param i the index of the run
@@ -263,6 +642,24 @@ public class GRASPStatistics {
 		return runtime.get(i);
 	}
 	
+	/**
+	 * Returns the number of iterations served by the solution cache in a certain run
+	 * @param i the index of the run
+	 * @return the number of cache hits in the i-th run
+	 */
+	public long getCacheHits(int i) {
+		return cacheHits.get(i);
+	}
+	
+	/**
+	 * Returns the number of iterations not served by the solution cache in a certain run
+	 * @param i the index of the run
+	 * @return the number of cache misses in the i-th run (0 if no cache was used)
+	 */
+	public long getCacheMisses(int i) {
+		return cacheMisses.get(i);
+	}
+	
 	/**
 	 * Returns a list of double values in JSON format
 	 * @param prob a list of double values
@@ -297,16 +694,21 @@ public class GRASPStatistics {
 		run.put("run", i);
 		run.put("seed", seeds.get(i));
 		run.put("time", runtime.get(i));
+		JsonObject cache = new JsonObject();
+		cache.put("hits", cacheHits.get(i));
+		cache.put("misses", cacheMisses.get(i));
+		run.put("cache", cache);
 		
 		JsonObject json = new JsonObject();
 		
 		JsonObject jsonstats = new JsonObject();		
 		JsonArray jsonevals = new JsonArray();
 		JsonArray jsonbest = new JsonArray();
-		List<GRASPStatisticEntry> data = stats.get(i);
-		for (GRASPStatisticEntry s: data) {
-			jsonevals.add(s.iter());
-			jsonbest.add(s.best());
+		GRASPTrace data = stats.get(i);
+		int m = data.size();
+		for (int k=0; k<m; k++) {
+			jsonevals.add(data.iter(k));
+			jsonbest.add(data.best(k));
 		}		
 		jsonstats.put("evals", jsonevals);
 		jsonstats.put("best", jsonbest);
@@ -315,15 +717,18 @@ public class GRASPStatistics {
 		JsonObject jsonsols = new JsonObject();		
 		JsonArray jsonsolsevals = new JsonArray();
 		JsonArray jsonsolsfitness = new JsonArray();
+		JsonArray jsonsolstime = new JsonArray();
 		JsonArray jsonsolsranks = new JsonArray();
 		List<GRASPSolutionEntry> soldata = sols.get(i);
 		for (GRASPSolutionEntry p: soldata) {
 			jsonsolsevals.add(p.iter());
 			jsonsolsfitness.add(p.f());
+			jsonsolstime.add(Double.isNaN(p.time()) ? null : p.time());
 			jsonsolsranks.add(intList2JsonArray(p.ranks()));
 		}		
 		jsonsols.put("evals", jsonsolsevals);
 		jsonsols.put("fitness", jsonsolsfitness);
+		jsonsols.put("time", jsonsolstime);
 		jsonsols.put("genome", jsonsolsranks);
 		json.put("isols", jsonsols);
 		
@@ -357,16 +762,241 @@ public class GRASPStatistics {
 		return jsondata;
 	}
 	
+	/**
+	 * Writes the data of all runs in JSON format (the same as {@link #toJSON()}), one run at a time, 
+	 * so that the JSON representation of all runs is never held in memory at once.
+	 * Any active, non-closed run is not recorded.
+	 * @param writer the destination of the JSON data
+	 * @throws IOException if the data cannot be written
+	 */
+	public void toJSON(Writer writer) throws IOException {
+		writer.write('[');
+		int n = stats.size();
+		for (int i=0; i<n; i++) {
+			if (i > 0)
+				writer.write(',');
+			toJSON(i).toJson(writer);
+		}
+		writer.write(']');
+		writer.flush();
+	}
+	
+	/**
+	 * Writes the data of all runs to a file in a compact columnar binary format. For each run, 
+	 * the seed, time and cache hits and misses are written, followed by the fitness statistics (arrays of evaluations and best 
+	 * fitness), the solution statistics (arrays of evaluations, fitness and time, and the concatenated ranks of 
+	 * all solutions packed with the smallest sufficient width) and the probability statistics (arrays of
+	 * evaluations and probabilities). Solutions are not written. Any active, non-closed run is not recorded.
+	 * @param filename the name of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void writeBinary(String filename) throws IOException {
+		try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.CREATE, 
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			int n = stats.size();
+			ByteBuffer header = ByteBuffer.allocate(12);
+			header.putInt(BINARY_MAGIC).putInt(BINARY_VERSION).putInt(n);
+			writeFully(channel, header.flip());
+			for (int i=0; i<n; i++) 
+				writeFully(channel, toBinary(i).flip());
+		}
+	}
+	
+	/**
+	 * Reads statistics from a file in the binary format produced by {@link #writeBinary(String)}.
+	 * Solutions are not stored in this format, so they are returned as null.
+	 * @param filename the name of the file
+	 * @return the statistics read
+	 * @throws IOException if the file cannot be read or is not correctly formatted
+	 */
+	public static GRASPStatistics readBinary(String filename) throws IOException {
+		GRASPStatistics st = new GRASPStatistics();
+		try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+			ByteBuffer header = readFully(channel, 12);
+			if (header.getInt() != BINARY_MAGIC)
+				throw new IOException(filename + " is not a GRASP statistics file");
+			int version = header.getInt();
+			if (version != BINARY_VERSION)
+				throw new IOException(filename + " has an unsupported version (" + version + ")");
+			int n = header.getInt();
+			for (int i=0; i<n; i++) {
+				long length = readFully(channel, Long.BYTES).getLong();
+				st.fromBinary(readFully(channel, Math.toIntExact(length)));
+			}
+		}
+		return st;
+	}
+	
+	/**
+	 * Returns the data of a certain run in binary format, preceded by its length in bytes
+	 * @param i the run index
+	 * @return a buffer with the data of the i-th run
+	 */
+	private ByteBuffer toBinary(int i) {
+		GRASPTrace data = stats.get(i);
+		List<GRASPSolutionEntry> soldata = sols.get(i);
+		List<GRASPProbabilityEntry> dataProb = probs.get(i);
+		int m = data.size();
+		int s = soldata.size();
+		int p = dataProb.size();
+		int k = (p == 0) ? 0 : dataProb.get(0).prob().size();
+		int maxRank = 0;
+		long totalRanks = 0;
+		for (GRASPSolutionEntry e: soldata) {
+			totalRanks += e.ranks().size();
+			for (int r: e.ranks())
+				maxRank = Math.max(maxRank, r);
+		}
+		int width = (maxRank <= 0xFF) ? Byte.BYTES : (maxRank <= 0xFFFF) ? Short.BYTES : Integer.BYTES;
+		long length = Long.BYTES + Double.BYTES + 2*Long.BYTES
+					+ Integer.BYTES + (long)m * (Integer.BYTES + Double.BYTES)
+					+ Integer.BYTES + 1 + (long)s * (2*Integer.BYTES + 2*Double.BYTES) + totalRanks * width
+					+ 2*Integer.BYTES + (long)p * Integer.BYTES + (long)p * k * Double.BYTES;
+		ByteBuffer buf = ByteBuffer.allocate(Math.toIntExact(Long.BYTES + length));
+		buf.putLong(length);
+		buf.putLong(seeds.get(i));
+		buf.putDouble(runtime.get(i));
+		buf.putLong(cacheHits.get(i));
+		buf.putLong(cacheMisses.get(i));
+		
+		buf.putInt(m);
+		buf.asIntBuffer().put(data.iters(), 0, m);
+		buf.position(buf.position() + m * Integer.BYTES);
+		buf.asDoubleBuffer().put(data.best(), 0, m);
+		buf.position(buf.position() + m * Double.BYTES);
+		
+		buf.putInt(s);
+		for (GRASPSolutionEntry e: soldata)
+			buf.putInt(e.iter());
+		for (GRASPSolutionEntry e: soldata)
+			buf.putDouble(e.f());
+		for (GRASPSolutionEntry e: soldata)
+			buf.putDouble(e.time());
+		for (GRASPSolutionEntry e: soldata)
+			buf.putInt(e.ranks().size());
+		buf.put((byte)width);
+		for (GRASPSolutionEntry e: soldata) {
+			for (int r: e.ranks()) {
+				switch (width) {
+				case Byte.BYTES -> buf.put((byte)r);
+				case Short.BYTES -> buf.putShort((short)r);
+				default -> buf.putInt(r);
+				}
+			}
+		}
+		
+		buf.putInt(p);
+		buf.putInt(k);
+		for (GRASPProbabilityEntry e: dataProb)
+			buf.putInt(e.iter());
+		for (GRASPProbabilityEntry e: dataProb) {
+			if (e.prob().size() != k)
+				throw new IllegalStateException("inconsistent number of parameter values in run " + i);
+			for (double q: e.prob())
+				buf.putDouble(q);
+		}
+		return buf;
+	}
+	
+	/**
+	 * Adds a (closed) run given its data in binary format
+	 * @param buf a buffer with the data of the run (excluding its length)
+	 */
+	private void fromBinary(ByteBuffer buf) {
+		seeds.add(buf.getLong());
+		runtime.add(buf.getDouble());
+		cacheHits.add(buf.getLong());
+		cacheMisses.add(buf.getLong());
+		
+		int m = buf.getInt();
+		int[] iters = new int[m];
+		double[] best = new double[m];
+		buf.asIntBuffer().get(iters);
+		buf.position(buf.position() + m * Integer.BYTES);
+		buf.asDoubleBuffer().get(best);
+		buf.position(buf.position() + m * Double.BYTES);
+		stats.add(new GRASPTrace(iters, best));
+		
+		int s = buf.getInt();
+		int[] solIters = new int[s];
+		double[] fitness = new double[s];
+		double[] time = new double[s];
+		int[] length = new int[s];
+		buf.asIntBuffer().get(solIters);
+		buf.position(buf.position() + s * Integer.BYTES);
+		buf.asDoubleBuffer().get(fitness);
+		buf.position(buf.position() + s * Double.BYTES);
+		buf.asDoubleBuffer().get(time);
+		buf.position(buf.position() + s * Double.BYTES);
+		buf.asIntBuffer().get(length);
+		buf.position(buf.position() + s * Integer.BYTES);
+		int width = buf.get();
+		List<GRASPSolutionEntry> soldata = new ArrayList<GRASPSolutionEntry>(s);
+		for (int j=0; j<s; j++) {
+			List<Integer> ranks = new ArrayList<Integer>(length[j]);
+			for (int r=0; r<length[j]; r++) {
+				switch (width) {
+				case Byte.BYTES -> ranks.add(Byte.toUnsignedInt(buf.get()));
+				case Short.BYTES -> ranks.add(Short.toUnsignedInt(buf.getShort()));
+				default -> ranks.add(buf.getInt());
+				}
+			}
+			soldata.add(new GRASPSolutionEntry(solIters[j], fitness[j], ranks, null, time[j]));
+		}
+		sols.add(soldata);
+		
+		int p = buf.getInt();
+		int k = buf.getInt();
+		int[] probIters = new int[p];
+		buf.asIntBuffer().get(probIters);
+		buf.position(buf.position() + p * Integer.BYTES);
+		List<GRASPProbabilityEntry> dataProb = new ArrayList<GRASPProbabilityEntry>(p);
+		for (int j=0; j<p; j++) {
+			List<Double> prob = new ArrayList<Double>(k);
+			for (int r=0; r<k; r++)
+				prob.add(buf.getDouble());
+			dataProb.add(new GRASPProbabilityEntry(probIters[j], prob));
+		}
+		probs.add(dataProb);
+	}
+	
+	/**
+	 * Writes the remaining contents of a buffer to a channel
+	 * @param channel the channel
+	 * @param buf the buffer
+	 * @throws IOException if the data cannot be written
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buf) throws IOException {
+		while (buf.hasRemaining())
+			channel.write(buf);
+	}
+	
+	/**
+	 * Reads a given number of bytes from a channel
+	 * @param channel the channel
+	 * @param length the number of bytes
+	 * @return a buffer (ready to be read) with the data
+	 * @throws IOException if the data cannot be read
+	 */
+	private static ByteBuffer readFully(FileChannel channel, int length) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(length);
+		while (buf.hasRemaining()) {
+			if (channel.read(buf) < 0)
+				throw new EOFException("unexpected end of statistics file");
+		}
+		return buf.flip();
+	}
+	
 	@Override
 	public String toString() {
 		String str = "";
 		int runs = stats.size();
 		for (int i=0; i<runs; i++) {
-			List<GRASPStatisticEntry> runstats = stats.get(i);
+			GRASPTrace runstats = stats.get(i);
 			str += "Run " + i + "\n=======\n";
 			str += "#evals\tbest\n------\t----\n";
-			for (GRASPStatisticEntry s: runstats) {
-				str += s.iter() + "\t" + s.best() + "\n";
+			for (int k=0; k<runstats.size(); k++) {
+				str += runstats.iter(k) + "\t" + runstats.best(k) + "\n";
 			}
 		}
 		return str;
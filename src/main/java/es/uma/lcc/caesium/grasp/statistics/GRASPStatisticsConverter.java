@@ -0,0 +1,30 @@
+package es.uma.lcc.caesium.grasp.statistics;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Converts statistics of reactive GRASP from binary format to JSON
+ * @author ccottap
+ * @version 1.0
+ */
+public class GRASPStatisticsConverter {
+
+	/**
+	 * Main method
+	 * @param args command-line arguments: binary input file, JSON output file
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Parameters: <binary-statistics> <json-statistics>");
+			System.exit(1);
+		}
+		GRASPStatistics stats = GRASPStatistics.readBinary(args[0]);
+		BufferedWriter file = new BufferedWriter(new FileWriter(args[1]));
+		stats.toJSON(file);
+		file.close();
+	}
+
+}
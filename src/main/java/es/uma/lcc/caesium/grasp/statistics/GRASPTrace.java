@@ -0,0 +1,112 @@
+package es.uma.lcc.caesium.grasp.statistics;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Columnar record of the best fitness of a run of reactive GRASP, stored
+ * as primitive arrays of iterations and fitness values
+ * @author ccottap
+ * @version 1.0
+ */
+class GRASPTrace implements Serializable {
+	/**
+	 * for serialization
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * default initial capacity
+	 */
+	private static final int CAPACITY = 16;
+	/**
+	 * iteration of each entry
+	 */
+	private int[] iters;
+	/**
+	 * best fitness so far at each entry
+	 */
+	private double[] best;
+	/**
+	 * number of entries
+	 */
+	private int size;
+	
+	/**
+	 * Creates an empty trace
+	 */
+	GRASPTrace() {
+		iters = new int[CAPACITY];
+		best = new double[CAPACITY];
+		size = 0;
+	}
+	
+	/**
+	 * Creates a trace with given contents
+	 * @param iters the iteration of each entry
+	 * @param best the best fitness so far at each entry
+	 */
+	GRASPTrace(int[] iters, double[] best) {
+		assert (iters.length == best.length);
+		this.iters = iters;
+		this.best = best;
+		size = iters.length;
+	}
+	
+	/**
+	 * Adds an entry to the trace
+	 * @param iter the current iteration
+	 * @param f the best fitness so far
+	 */
+	void add(int iter, double f) {
+		if (size == iters.length) {
+			int capacity = Math.max(CAPACITY, 2*size);
+			iters = Arrays.copyOf(iters, capacity);
+			best = Arrays.copyOf(best, capacity);
+		}
+		iters[size] = iter;
+		best[size] = f;
+		size++;
+	}
+	
+	/**
+	 * Returns the number of entries
+	 * @return the number of entries
+	 */
+	int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns the iteration of an entry
+	 * @param k the index of the entry
+	 * @return the iteration of the k-th entry
+	 */
+	int iter(int k) {
+		return iters[k];
+	}
+	
+	/**
+	 * Returns the best fitness so far at an entry
+	 * @param k the index of the entry
+	 * @return the best fitness so far at the k-th entry
+	 */
+	double best(int k) {
+		return best[k];
+	}
+	
+	/**
+	 * Returns the array of iterations (only the first {@link #size()} positions are meaningful)
+	 * @return the array of iterations
+	 */
+	int[] iters() {
+		return iters;
+	}
+	
+	/**
+	 * Returns the array of fitness values (only the first {@link #size()} positions are meaningful)
+	 * @return the array of fitness values
+	 */
+	double[] best() {
+		return best;
+	}
+}
@@ -0,0 +1,302 @@
+package es.uma.lcc.caesium.grasp.test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.cliftonlabs.json_simple.JsonException;
+import com.github.cliftonlabs.json_simple.JsonObject;
+
+import es.uma.lcc.caesium.grasp.base.ReactiveGRASP;
+import es.uma.lcc.caesium.grasp.statistics.GRASPStatistics;
+import es.uma.lcc.caesium.grasp.util.JsonUtil;
+import es.uma.lcc.caesium.problem.permutation.taskassignment.TaskAssignment;
+
+/**
+ * Class for running reactive GRASP on many Task Assignment Problem instances within a single JVM.
+ * The manifest is a text file with one job per line, made of the names of the configuration and
+ * the instance (as given to {@link RunGRASP4TaskAssignment}) separated by whitespace; blank lines
+ * and lines starting with # are ignored. Jobs are started on a work-stealing pool, largest
+ * instances first, and the estimated memory footprint of the jobs in progress (see 
+ * {@link #estimateBytes(JsonObject, String, long)}) is kept within a budget, so that large 
+ * instances wait rather than exhaust the heap. Each run of a job is a separate
+ * task of the pool, with the same seed as in {@link RunGRASP4TaskAssignment}, and the outcome
+ * of each run is written as soon as it is over to a common output, one JSON object per line.
+ * The statistics of each job are written as in {@link RunGRASP4TaskAssignment} once all its runs
+ * are over. Jobs that cannot be read or solved are reported in the output, and the batch goes on.
+ * @author ccottap
+ * @version 1.1
+ */
+public class RunBatchGRASP4TaskAssignment {
+	/**
+	 * estimated number of bytes per entry of the trace of a run (an iteration and a fitness,
+	 * in arrays that grow by doubling)
+	 */
+	private static final long TRACE_BYTES = 2 * (Integer.BYTES + Double.BYTES);
+	/**
+	 * estimated number of bytes per element of the lists of the statistics (a reference and a 
+	 * boxed number)
+	 */
+	private static final long BOXED_BYTES = 20;
+	/**
+	 * a megabyte
+	 */
+	private static final long MB = 1 << 20;
+
+	/**
+	 * A job of the batch
+	 * @param config the name of the configuration
+	 * @param instance the name of the instance
+	 * @param megabytes the estimated memory footprint (in megabytes)
+	 */
+	private record Job(String config, String instance, int megabytes) {
+	}
+
+	/**
+	 * Main method
+	 * @param args command-line arguments
+	 * @throws IOException if the manifest cannot be read or the output cannot be written
+	 * @throws InterruptedException if interrupted while waiting for the jobs
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 2) {
+			System.out.println("Parameters: <manifest> <output> [<threads> [<memory-MB>]]");
+			System.exit(1);
+		}
+		int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		int budget = (args.length > 3) ? Integer.parseInt(args[3]) : (int)(Runtime.getRuntime().maxMemory() / MB * 3 / 4);
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try (PrintWriter out = new PrintWriter(new FileWriter(args[1]))) {
+			List<Job> jobs = readManifest(args[0], budget, out);
+			jobs.sort(Comparator.comparingInt(Job::megabytes).reversed());
+			Semaphore memory = new Semaphore(budget);
+			CountDownLatch pending = new CountDownLatch(jobs.size());
+			for (Job job: jobs) {
+				memory.acquire(job.megabytes());
+				pool.execute(() -> start(job, pool, out, () -> {
+					memory.release(job.megabytes());
+					pending.countDown();
+				}));
+			}
+			pending.await();
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Reads the manifest. Lines that are malformed or refer to instances that cannot be read
+	 * are reported in the output and skipped.
+	 * @param name the name of the manifest file
+	 * @param budget the memory budget (in megabytes); the footprint of larger jobs is capped to it,
+	 * so that they are run alone
+	 * @param out the output
+	 * @return the jobs
+	 * @throws IOException if the manifest cannot be read
+	 */
+	private static List<Job> readManifest(String name, int budget, PrintWriter out) throws IOException {
+		List<Job> jobs = new ArrayList<Job>();
+		try (BufferedReader in = new BufferedReader(new FileReader(name))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				line = line.strip();
+				if (line.isEmpty() || line.startsWith("#"))
+					continue;
+				String[] fields = line.split("\\s+");
+				if (fields.length != 2) {
+					JsonObject error = new JsonObject();
+					error.put("manifest", line);
+					error.put("error", "malformed manifest line");
+					write(out, error);
+					continue;
+				}
+				String instance = fields[1] + TaskAssignment.BINARY_EXTENSION;
+				if (!new File(instance).exists())
+					instance = fields[1] + ".tap";
+				try {
+					JsonObject conf = RunGRASP4TaskAssignment.readConfiguration(fields[0]);
+					long bytes = estimateBytes(conf, instance, TaskAssignment.readNumTasks(instance));
+					int megabytes = (int)Math.min(budget, Math.max(1, (bytes + MB - 1) / MB));
+					jobs.add(new Job(fields[0], fields[1], megabytes));
+				}
+				catch (IOException | JsonException | RuntimeException e) {
+					write(out, error(new Job(fields[0], fields[1], 0), e));
+				}
+			}
+		}
+		return jobs;
+	}
+
+	/**
+	 * Estimates the memory footprint of a job: the costs (as stored given the configuration, 
+	 * so the instance is read if they are compacted), the sorted agents of each task, and the 
+	 * statistics, solution cache and elite pool of each run, all of which are held until the job 
+	 * is over. The number of improvements recorded in a run is not known in advance, and is taken 
+	 * as the logarithm of the number of iterations (the expected number of records of a random sequence).
+	 * @param conf the configuration of the algorithm
+	 * @param instance the name of the instance file
+	 * @param n the number of agents/tasks
+	 * @return the estimated footprint in bytes
+	 * @throws IOException if the instance cannot be read
+	 */
+	private static long estimateBytes(JsonObject conf, String instance, long n) throws IOException {
+		boolean compact = conf.containsKey("compact") && JsonUtil.getBoolean(conf, "compact");
+		boolean byTask = conf.containsKey("bytask") && JsonUtil.getBoolean(conf, "bytask");
+		long costs = n * n * (compact ? TaskAssignment.readCostBytes(instance) : Integer.BYTES) * (byTask ? 2 : 1);
+		long sorted = n * n * Integer.BYTES;
+
+		long iterations = JsonUtil.getInt(conf, "iterations");
+		long sampling = conf.containsKey("sampling") ? JsonUtil.getInt(conf, "sampling") : 0;
+		long improvements = 1 + (long)Math.ceil(Math.log(iterations + 1));
+		long trace = iterations;
+		long probs = iterations / Math.max(1, JsonUtil.getInt(conf, "update")) + 1;
+		if (sampling > 0) {
+			trace = Math.min(trace, iterations / sampling + improvements);
+			probs = Math.min(probs, iterations / sampling + 1);
+		}
+		long cache = conf.containsKey("cache") ? JsonUtil.getInt(conf, "cache") : 0;
+		long elite = conf.containsKey("elite") ? JsonUtil.getInt(conf, "elite") : 0;
+		// trace, probabilities (of n-1 values), ranks and solutions of the improvements, 
+		// ranks and solutions in the cache, and elite solutions
+		long run = trace * TRACE_BYTES + probs * n * BOXED_BYTES + improvements * n * (BOXED_BYTES + Integer.BYTES)
+				+ (2 * cache + elite) * n * Integer.BYTES;
+		return costs + sorted + JsonUtil.getInt(conf, "numruns") * run;
+	}
+
+	/**
+	 * Starts a job: loads the instance and submits each run to the pool. The statistics
+	 * of the job are written by the last run to finish.
+	 * @param job the job
+	 * @param pool the pool on which the runs are performed
+	 * @param out the output
+	 * @param done action performed when the job is over (successfully or not)
+	 */
+	private static void start(Job job, ForkJoinPool pool, PrintWriter out, Runnable done) {
+		JsonObject conf;
+		ReactiveGRASP myRG;
+		ReactiveGRASP[] solvers;
+		long seed;
+		try {
+			conf = RunGRASP4TaskAssignment.readConfiguration(job.config());
+			TaskAssignment tap = RunGRASP4TaskAssignment.loadInstance(conf, job.instance());
+			myRG = RunGRASP4TaskAssignment.configure(conf, tap);
+			myRG.setVerbosityLevel(0);
+			seed = JsonUtil.getLong(conf, "seed");
+			solvers = new ReactiveGRASP[JsonUtil.getInt(conf, "numruns")];
+			for (int i=0; i<solvers.length; i++) {
+				solvers[i] = new ReactiveGRASP(myRG);
+				solvers[i].setSeed(seed + i);
+			}
+		}
+		catch (Exception | OutOfMemoryError e) {
+			write(out, error(job, e));
+			done.run();
+			return;
+		}
+		if (solvers.length == 0) {
+			finish(job, conf, myRG, solvers, out);
+			done.run();
+			return;
+		}
+
+		AtomicInteger remaining = new AtomicInteger(solvers.length);
+		for (int i=0; i<solvers.length; i++) {
+			int run = i;
+			pool.execute(() -> {
+				try {
+					solve(job, run, seed + run, solvers[run], out);
+				}
+				finally {
+					if (remaining.decrementAndGet() == 0) {
+						finish(job, conf, myRG, solvers, out);
+						done.run();
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Performs a run of a job and writes its outcome
+	 * @param job the job
+	 * @param run the index of the run
+	 * @param seed the seed of the run
+	 * @param solver the solver of the run, whose seed is already set
+	 * @param out the output
+	 */
+	private static void solve(Job job, int run, long seed, ReactiveGRASP solver, PrintWriter out) {
+		JsonObject line = new JsonObject();
+		line.put("config", job.config());
+		line.put("instance", job.instance());
+		line.put("run", run);
+		line.put("seed", seed);
+		try {
+			solver.run();
+			GRASPStatistics stats = solver.getStatistics();
+			line.put("time", stats.getTime(0));
+			line.put("fitness", stats.getBestFitness(0));
+		}
+		catch (Exception | OutOfMemoryError e) {
+			line.put("error", e.toString());
+		}
+		write(out, line);
+	}
+
+	/**
+	 * Writes the statistics of a job, i.e., those of its runs in order
+	 * @param job the job
+	 * @param conf the configuration of the algorithm
+	 * @param myRG the solver whose configuration was copied for each run
+	 * @param solvers the solvers of the runs
+	 * @param out the output
+	 */
+	private static void finish(Job job, JsonObject conf, ReactiveGRASP myRG, ReactiveGRASP[] solvers, PrintWriter out) {
+		try {
+			for (ReactiveGRASP solver: solvers)
+				myRG.getStatistics().addRuns(solver.getStatistics());
+			RunGRASP4TaskAssignment.writeStatistics(conf, myRG.getStatistics(), job.config() + "-stats-" + job.instance());
+		}
+		catch (Exception | OutOfMemoryError e) {
+			write(out, error(job, e));
+		}
+	}
+
+	/**
+	 * Returns a line of the output reporting that a job failed
+	 * @param job the job
+	 * @param e the cause of the failure
+	 * @return the JSON object
+	 */
+	private static JsonObject error(Job job, Throwable e) {
+		JsonObject line = new JsonObject();
+		line.put("config", job.config());
+		line.put("instance", job.instance());
+		line.put("error", e.toString());
+		return line;
+	}
+
+	/**
+	 * Writes a line of the output
+	 * @param out the output
+	 * @param line the JSON object
+	 */
+	private static void write(PrintWriter out, JsonObject line) {
+		synchronized (out) {
+			out.println(line.toJson());
+			out.flush();
+		}
+	}
+
+}
@@ -1,19 +1,33 @@
 package es.uma.lcc.caesium.grasp.test;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Locale;
 
+import javax.management.JMException;
+
 import com.github.cliftonlabs.json_simple.JsonException;
 import com.github.cliftonlabs.json_simple.JsonObject;
 import com.github.cliftonlabs.json_simple.Jsoner;
 
 
 import es.uma.lcc.caesium.grasp.util.JsonUtil;
+import es.uma.lcc.caesium.problem.permutation.taskassignment.AssignmentSolution;
+import es.uma.lcc.caesium.problem.permutation.taskassignment.AssignmentSolver;
+import es.uma.lcc.caesium.problem.permutation.taskassignment.AuctionSolver;
+import es.uma.lcc.caesium.problem.permutation.taskassignment.HungarianSolver;
 import es.uma.lcc.caesium.problem.permutation.taskassignment.TaskAssignment;
+import es.uma.lcc.caesium.grasp.base.GRASPMetrics;
 import es.uma.lcc.caesium.grasp.base.ReactiveGRASP;
+import es.uma.lcc.caesium.grasp.base.StoppingCriterion;
+import es.uma.lcc.caesium.grasp.statistics.GRASPStatistics;
 
 /**
  * Class for testing the reactive GRASP for the Aircraft Landing Scheduling Problem
@@ -27,55 +41,207 @@ public class RunGRASP4TaskAssignment {
 	 * @param args command-line arguments
 	 * @throws JsonException if the configuration file is not correctly formatted
 	 * @throws IOException if a file cannot be read or written
+	 * @throws InterruptedException if interrupted while waiting for parallel runs
+	 * @throws JMException if the metrics cannot be registered
 	 */
-	@SuppressWarnings("unchecked")
-	public static void main(String[] args) throws JsonException, IOException {
+	public static void main(String[] args) throws JsonException, IOException, InterruptedException, JMException {
 		if (args.length < 2) {
 			System.out.println("Parameters: <algorithm-configuration> <problem-data>");
 			System.exit(1);
 		}
 		
-		FileReader reader = new FileReader(args[0] + ".json");
-		JsonObject conf = (JsonObject) Jsoner.deserialize(reader);
-		reader.close();
-		
-		TaskAssignment tap = new TaskAssignment(args[1] + ".tap");
+		JsonObject conf = readConfiguration(args[0]);
+		int numthreads = conf.containsKey("threads") ? JsonUtil.getInt(conf, "threads") : 1;
+		if ((numthreads > 1) && conf.containsKey("checkpoint")) {
+			System.out.println("Checkpoints are only supported with a single thread");
+			System.exit(1);
+		}
+		TaskAssignment tap = loadInstance(conf, args[1]);
 		System.out.println(tap);
+		ReactiveGRASP myRG = configure(conf, tap);
+		if (conf.containsKey("metrics") && JsonUtil.getBoolean(conf, "metrics")) {
+			GRASPMetrics metrics = new GRASPMetrics();
+			metrics.register(args[0] + "-" + args[1]);
+			myRG.setMetrics(metrics);
+		}
+		
+		int numruns = JsonUtil.getInt(conf, "numruns");
+		int first = 0;
+		String checkpoint = null;
+		if (numthreads > 1) {
+			myRG.run(numruns, numthreads);
+		}
+		else if (conf.containsKey("checkpoint")) {
+			checkpoint = JsonUtil.getString(conf, "checkpoint");
+			int interval = conf.containsKey("checkpointinterval") ? JsonUtil.getInt(conf, "checkpointinterval") : 100;
+			myRG.setCheckpoint(checkpoint, interval);
+			if (new File(checkpoint).exists()) {
+				System.out.println("Resuming from " + checkpoint);
+				myRG.resume(checkpoint);
+				first = myRG.getStatistics().getNumRuns();
+				for (int i=0; i<first; i++)
+					report(myRG.getStatistics(), i);
+			}
+		}
+		for (int i=first; i<numruns; i++) {
+			if (numthreads <= 1)
+				myRG.run();
+			report(myRG.getStatistics(), i);
+		}
+		if (myRG.getMetrics() != null) {
+			GRASPMetrics m = myRG.getMetrics();
+			System.out.println(String.format(Locale.US, "%.1f iterations/s, %.1f evaluations/s, decode %.1fus, improve %.1fus, evaluate %.1fus, %.1f moves/iteration", 
+								m.getIterationsPerSecond(), m.getEvaluationsPerSecond(), m.getDecodeMicros(), m.getImproveMicros(), m.getEvaluateMicros(),
+								m.getMovesPerIteration()));
+		}
+		writeStatistics(conf, myRG.getStatistics(), args[0] + "-stats-" + args[1]);
+		if (checkpoint != null)
+			Files.deleteIfExists(Path.of(checkpoint));
+	}
+	
+	/**
+	 * Reads the configuration of the algorithm
+	 * @param name the name of the configuration file (without the .json extension)
+	 * @return the configuration
+	 * @throws JsonException if the configuration file is not correctly formatted
+	 * @throws IOException if the configuration file cannot be read
+	 */
+	static JsonObject readConfiguration(String name) throws JsonException, IOException {
+		try (FileReader reader = new FileReader(name + ".json")) {
+			return (JsonObject) Jsoner.deserialize(reader);
+		}
+	}
+	
+	/**
+	 * Loads a problem instance, in binary format if available and in text format otherwise
+	 * @param conf the configuration of the algorithm
+	 * @param name the name of the instance (without extension)
+	 * @return the problem instance
+	 * @throws FileNotFoundException if the instance does not exist
+	 */
+	static TaskAssignment loadInstance(JsonObject conf, String name) throws FileNotFoundException {
+		String instance = name + TaskAssignment.BINARY_EXTENSION;
+		if (!new File(instance).exists())
+			instance = name + ".tap";
+		TaskAssignment tap = new TaskAssignment(instance, conf.containsKey("compact") && JsonUtil.getBoolean(conf, "compact"));
+		if (conf.containsKey("bytask") && JsonUtil.getBoolean(conf, "bytask"))
+			tap.storeByTask();
+		return tap;
+	}
+	
+	/**
+	 * Creates a solver for a problem instance given the configuration of the algorithm
+	 * @param conf the configuration of the algorithm
+	 * @param tap the problem instance
+	 * @return the solver
+	 */
+	static ReactiveGRASP configure(JsonObject conf, TaskAssignment tap) {
 		TaskAssignmentGRASPObjectiveFunction obj = new TaskAssignmentGRASPObjectiveFunction(tap);
 		if (conf.containsKey("neighbors"))
 			obj.setNumNeighbors(JsonUtil.getInt(conf, "neighbors"));
 		else
 			obj.setNumNeighbors(0);
+		if (conf.containsKey("localsearch")) {
+			obj.setStrategy(switch (JsonUtil.getString(conf, "localsearch")) {
+			case "best" -> TaskAssignmentGRASPObjectiveFunction.Strategy.BEST;
+			case "first" -> TaskAssignmentGRASPObjectiveFunction.Strategy.FIRST;
+			case "dontlook" -> TaskAssignmentGRASPObjectiveFunction.Strategy.DONT_LOOK_BITS;
+			default -> throw new IllegalArgumentException("unknown local search: " + JsonUtil.getString(conf, "localsearch"));
+			});
+		}
+		if (conf.containsKey("candidates"))
+			obj.setEjectionChains(JsonUtil.getInt(conf, "candidates"), conf.containsKey("chainlength") ? JsonUtil.getInt(conf, "chainlength") : 3);
 		
 		ReactiveGRASP myRG = new ReactiveGRASP();
 		myRG.setObjectiveFunction(obj);
 		
-		int numruns = JsonUtil.getInt(conf, "numruns");
 		myRG.setSeed(JsonUtil.getLong(conf, "seed"));
 		myRG.setNumIters(JsonUtil.getInt(conf, "iterations"));
 		myRG.setAmplification(JsonUtil.getDouble(conf, "amplification"));
 		myRG.setIterUpdate(JsonUtil.getInt(conf, "update"));
+		if (conf.containsKey("sampling"))
+			myRG.getStatistics().setSamplingInterval(JsonUtil.getInt(conf, "sampling"));
+		if (conf.containsKey("workers"))
+			myRG.setNumThreads(JsonUtil.getInt(conf, "workers"));
+		if (conf.containsKey("cache"))
+			myRG.setCacheSize(JsonUtil.getInt(conf, "cache"));
+		if (conf.containsKey("elite"))
+			myRG.setElitePoolSize(JsonUtil.getInt(conf, "elite"));
+		if (conf.containsKey("elitedistance"))
+			myRG.setMinEliteDistance(JsonUtil.getInt(conf, "elitedistance"));
+		if (conf.containsKey("relinking"))
+			myRG.setRelinkingSteps(JsonUtil.getInt(conf, "relinking"));
+		if (conf.containsKey("slack"))
+			myRG.setBoundedConstruction(JsonUtil.getDouble(conf, "slack"));
+		StoppingCriterion stop = StoppingCriterion.maxEvaluations(JsonUtil.getInt(conf, "iterations"));
+		if (conf.containsKey("time"))
+			stop = stop.or(StoppingCriterion.maxTime(JsonUtil.getDouble(conf, "time")));
+		if (conf.containsKey("target"))
+			stop = stop.or(StoppingCriterion.targetFitness(target(conf, tap)));
+		if (conf.containsKey("stagnation"))
+			stop = stop.or(StoppingCriterion.stagnation(JsonUtil.getDouble(conf, "stagnation")));
+		myRG.setStoppingCriterion(stop);
 		
 		
 		for (int i=1; i<tap.getNumTasks(); i++) { 
 			myRG.addValue(i);
 		}
 		myRG.setVerbosityLevel(1);
-		for (int i=0; i<numruns; i++) {
-			myRG.run();
-			System.out.println ("Run " + i + ": " + 
-								String.format(Locale.US, "%.2f", myRG.getStatistics().getTime(i)) + "s\t" +
-								myRG.getStatistics().getBestFitness(i));
-			System.out.println(myRG.getStatistics().getBest(i)); 
-			System.out.println(obj.decode((List<Integer>)(myRG.getStatistics().getBest(i))));
-		}
-		PrintWriter file = new PrintWriter(args[0] + "-stats-" + args[1] + ".json");
-		file.print(myRG.getStatistics().toJSON().toJson());
-		file.close();
+		return myRG;
 	}
 	
+	/**
+	 * Returns the target fitness given in the configuration: either a value, or the name of an exact
+	 * solver ("hungarian" or "auction") whose lower bound is used, so that runs stop as soon as
+	 * an optimal solution is found
+	 * @param conf the configuration of the algorithm
+	 * @param tap the problem instance
+	 * @return the target fitness
+	 */
+	static double target(JsonObject conf, TaskAssignment tap) {
+		if (conf.get("target") instanceof String method) {
+			AssignmentSolver solver = switch (method) {
+			case "hungarian" -> new HungarianSolver();
+			case "auction" -> new AuctionSolver();
+			default -> throw new IllegalArgumentException("unknown exact solver: " + method);
+			};
+			AssignmentSolution opt = solver.solve(tap);
+			System.out.println("Optimal cost (" + method + "): " + opt.cost() + "\tlower bound: " + opt.lowerBound());
+			return Math.ceil(opt.lowerBound() - 1e-9);
+		}
+		return JsonUtil.getDouble(conf, "target");
+	}
 	
+	/**
+	 * Prints the outcome of a run
+	 * @param stats the statistics of the algorithm
+	 * @param i the index of the run
+	 */
+	static void report(GRASPStatistics stats, int i) {
+		System.out.println ("Run " + i + ": " + 
+							String.format(Locale.US, "%.2f", stats.getTime(i)) + "s\t" +
+							stats.getBestFitness(i));
+		System.out.println(Arrays.toString((int[])stats.getBest(i))); 
+		System.out.println(stats.getBestRanks(i));
+	}
 	
-	
+	/**
+	 * Writes the statistics of the algorithm, in binary format if so indicated in the configuration
+	 * and in JSON format otherwise
+	 * @param conf the configuration of the algorithm
+	 * @param stats the statistics of the algorithm
+	 * @param name the name of the output file (without extension)
+	 * @throws IOException if the file cannot be written
+	 */
+	static void writeStatistics(JsonObject conf, GRASPStatistics stats, String name) throws IOException {
+		if (conf.containsKey("binary") && JsonUtil.getBoolean(conf, "binary")) {
+			stats.writeBinary(name + ".grsb");
+		}
+		else {
+			try (BufferedWriter file = new BufferedWriter(new FileWriter(name + ".json"))) {
+				stats.toJSON(file);
+			}
+		}
+	}
 
 }
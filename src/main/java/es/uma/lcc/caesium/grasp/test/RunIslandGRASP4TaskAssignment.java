@@ -0,0 +1,109 @@
+package es.uma.lcc.caesium.grasp.test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.cliftonlabs.json_simple.JsonException;
+import com.github.cliftonlabs.json_simple.JsonObject;
+
+import es.uma.lcc.caesium.grasp.base.ReactiveGRASP;
+import es.uma.lcc.caesium.grasp.island.FileMigrationTransport;
+import es.uma.lcc.caesium.grasp.island.IslandCoordinator;
+import es.uma.lcc.caesium.grasp.statistics.GRASPStatistics;
+import es.uma.lcc.caesium.grasp.util.JsonUtil;
+import es.uma.lcc.caesium.problem.permutation.taskassignment.TaskAssignment;
+
+/**
+ * Class for testing the island model of reactive GRASP for the Task Assignment Problem.
+ * Given the number of islands, it acts as coordinator: it launches one process per island,
+ * waits for them and merges their statistics (the islands cooperate in each run). Given also the index of an island, it runs
+ * that island. Islands migrate through files in a shared directory (configuration key
+ * "migrationdir"), every "migration" updates of the probabilities, blending received
+ * probabilities with weight "migrationweight".
+ * @author ccottap
+ * @version 1.0
+ */
+public class RunIslandGRASP4TaskAssignment {
+	/**
+	 * default number of updates of the probabilities between migrations
+	 */
+	private static final int MIGRATION_INTERVAL = 10;
+	/**
+	 * default weight of the probabilities of other islands
+	 */
+	private static final double MIGRATION_WEIGHT = 0.5;
+
+	/**
+	 * Main method
+	 * @param args command-line arguments
+	 * @throws JsonException if the configuration file is not correctly formatted
+	 * @throws IOException if a file cannot be read or written, or an island fails
+	 * @throws InterruptedException if interrupted while waiting for the islands
+	 */
+	public static void main(String[] args) throws JsonException, IOException, InterruptedException {
+		if (args.length < 3) {
+			System.out.println("Parameters: <algorithm-configuration> <problem-data> <num-islands> [<island>]");
+			System.exit(1);
+		}
+
+		JsonObject conf = RunGRASP4TaskAssignment.readConfiguration(args[0]);
+		int islands = Integer.parseInt(args[2]);
+		String dir = conf.containsKey("migrationdir") ? JsonUtil.getString(conf, "migrationdir") : args[0] + "-islands-" + args[1];
+
+		if (args.length > 3)
+			runIsland(conf, args[1], Integer.parseInt(args[3]), dir);
+		else {
+			List<List<String>> commands = new ArrayList<List<String>>(islands);
+			List<String> files = new ArrayList<String>(islands);
+			for (int k=0; k<islands; k++) {
+				commands.add(IslandCoordinator.javaCommand(RunIslandGRASP4TaskAssignment.class.getName(),
+						args[0], args[1], args[2], Integer.toString(k)));
+				files.add(statisticsFile(dir, k));
+			}
+			IslandCoordinator.clean(dir);
+			IslandCoordinator.launch(commands);
+			GRASPStatistics stats = IslandCoordinator.merge(files);
+			for (int i=0; i<stats.getNumRuns(); i++)
+				System.out.println("Run " + i + ": " + stats.getBestFitness(i));
+			System.out.println("Best: " + stats.getBestFitness());
+			RunGRASP4TaskAssignment.writeStatistics(conf, stats, args[0] + "-stats-" + args[1]);
+		}
+	}
+
+	/**
+	 * Returns the name of the file with the statistics of an island
+	 * @param dir the shared directory
+	 * @param island the index of the island
+	 * @return the name of the file
+	 */
+	private static String statisticsFile(String dir, int island) {
+		return dir + "/island-" + island + ".grsb";
+	}
+
+	/**
+	 * Runs an island. Island k uses seeds seed+k*numruns, seed+k*numruns+1, and so on.
+	 * The migrants of each run are exchanged in a separate subdirectory.
+	 * @param conf the configuration of the algorithm
+	 * @param instance the name of the problem instance
+	 * @param island the index of the island
+	 * @param dir the shared directory
+	 * @throws IOException if a file cannot be read or written
+	 */
+	private static void runIsland(JsonObject conf, String instance, int island, String dir) throws IOException {
+		TaskAssignment tap = RunGRASP4TaskAssignment.loadInstance(conf, instance);
+		ReactiveGRASP myRG = RunGRASP4TaskAssignment.configure(conf, tap);
+		int numruns = JsonUtil.getInt(conf, "numruns");
+		int interval = conf.containsKey("migration") ? JsonUtil.getInt(conf, "migration") : MIGRATION_INTERVAL;
+		double weight = conf.containsKey("migrationweight") ? JsonUtil.getDouble(conf, "migrationweight") : MIGRATION_WEIGHT;
+		myRG.setSeed(JsonUtil.getLong(conf, "seed") + (long)island * numruns);
+
+		for (int i=0; i<numruns; i++) {
+			myRG.setMigration(new FileMigrationTransport(dir + "/run-" + i, island), interval, weight);
+			myRG.run();
+			RunGRASP4TaskAssignment.report(myRG.getStatistics(), i);
+		}
+		myRG.getStatistics().writeBinary(statisticsFile(dir, island));
+	}
+
+}
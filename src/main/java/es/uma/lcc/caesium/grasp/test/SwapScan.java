@@ -0,0 +1,25 @@
+package es.uma.lcc.caesium.grasp.test;
+
+/**
+ * Bulk evaluation of the swaps of a row of the swap neighborhood of the Task Assignment Problem,
+ * given the costs as flat arrays of integers. It is implemented with the Vector API by 
+ * {@link TaskAssignmentGRASPObjectiveFunction#VECTOR_CLASS}, which is only built with the 
+ * vector profile.
+ * @author ccottap
+ * @version 1.0
+ */
+interface SwapScan {
+	/**
+	 * Evaluates all swaps (i, j) with j &lt; i and caches the best improving one. Ties are broken
+	 * in favor of the lowest position.
+	 * @param byAgent the costs by agent
+	 * @param byTask the costs by task
+	 * @param n the number of agents/tasks
+	 * @param i the row
+	 * @param agent the agent assigned to each task
+	 * @param current the cost of the current assignment of each task
+	 * @param rowBest best net change in each row
+	 * @param rowArg position of the best swap in each row
+	 */
+	void scanRow(int[] byAgent, int[] byTask, int n, int i, int[] agent, int[] current, int[] rowBest, int[] rowArg);
+}
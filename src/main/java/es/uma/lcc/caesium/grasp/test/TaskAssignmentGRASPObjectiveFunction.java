@@ -1,26 +1,79 @@
 package es.uma.lcc.caesium.grasp.test;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
-import es.uma.lcc.caesium.grasp.base.GRASPObjectiveFunction;
 import es.uma.lcc.caesium.grasp.base.LocalSearchResult;
+import es.uma.lcc.caesium.grasp.base.TypedGRASPObjectiveFunction;
 import es.uma.lcc.caesium.problem.permutation.taskassignment.TaskAssignment;
 
 
 /**
- * Problem specific functions to solve the Task Assignment Problem with GRASP
+ * Problem specific functions to solve the Task Assignment Problem with GRASP.
+ * Solutions are represented as arrays indicating the agent assigned to each task.
+ * <p>
+ * The swaps of local search are evaluated with vector instructions (see {@link SwapScan}) 
+ * if the implementation was built (with the vector profile), the module jdk.incubator.vector 
+ * is available (i.e., the JVM is launched with {@code --add-modules jdk.incubator.vector}), 
+ * the system property {@value #VECTOR_PROPERTY} is not false, and the costs are stored as 
+ * integers both by agent and by task (see {@link TaskAssignment#storeByTask()}). Otherwise, 
+ * they are evaluated one by one.
  * @author ccottap
- * @version 1.1
+ * @version 1.7
  */
-public class TaskAssignmentGRASPObjectiveFunction implements GRASPObjectiveFunction {
+public class TaskAssignmentGRASPObjectiveFunction implements TypedGRASPObjectiveFunction<int[]> {
+	/**
+	 * Strategies of local search. All of them explore the swap neighborhood.
+	 */
+	public enum Strategy {
+		/**
+		 * steepest descent: the best swap is performed in each step
+		 */
+		BEST,
+		/**
+		 * first improvement: positions are visited in a random order, and the first 
+		 * improving swap of each position is performed
+		 */
+		FIRST,
+		/**
+		 * first improvement with don't-look bits: only positions whose agent has changed 
+		 * since they were last visited without improvement are visited
+		 */
+		DONT_LOOK_BITS
+	}
+	
+	/**
+	 * system property to disable vector instructions
+	 */
+	public static final String VECTOR_PROPERTY = "grasp.vector";
+	/**
+	 * name of the class that evaluates swaps with vector instructions
+	 */
+	static final String VECTOR_CLASS = "es.uma.lcc.caesium.grasp.test.VectorSwapScan";
+	/**
+	 * evaluation of swaps with vector instructions (null if not available; determined at startup)
+	 */
+	private static final SwapScan VECTOR = vectorScan();
 	/**
 	 * a task-assignment problem instance
 	 */
 	private TaskAssignment data;
+	/**
+	 * agents sorted by increasing cost (ties broken by agent index) for each task
+	 */
+	private int[][] agentOrder;
+	/**
+	 * sum of the minimum cost of the tasks from each one to the last one
+	 */
+	private int[] suffixMin;
+	/**
+	 * costs by agent for vector instructions (null if not used)
+	 */
+	private int[] byAgent;
+	/**
+	 * costs by task for vector instructions (null if not used)
+	 */
+	private int[] byTask;
 	/**
 	 * default value of the number of neighbors to explore during local search
 	 */
@@ -29,6 +82,18 @@ public class TaskAssignmentGRASPObjectiveFunction implements GRASPObjectiveFunct
 	 * number of neighbors to explore during local search
 	 */
 	private int numNeighbors = 0;
+	/**
+	 * strategy of local search
+	 */
+	private Strategy strategy = Strategy.BEST;
+	/**
+	 * size of the candidate lists of ejection chains (0 = no ejection chains)
+	 */
+	private int candidates = 0;
+	/**
+	 * maximum length of ejection chains
+	 */
+	private int chainLength = 3;
 	/**
 	 * to control verbosity
 	 */
@@ -51,6 +116,21 @@ public class TaskAssignmentGRASPObjectiveFunction implements GRASPObjectiveFunct
 		setNumNeighbors(NUM_NEIGHBORS);
 	}
 	
+	/**
+	 * Returns the evaluation of swaps with vector instructions, if available
+	 * @return the evaluation of swaps with vector instructions, or null if not available
+	 */
+	private static SwapScan vectorScan() {
+		if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true")) 
+				|| ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+			return null;
+		try {
+			return (SwapScan) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+	
 	/**
 	 * Sets the verbosity level (0 = no verbosity)
 	 * @param verbosityLevel the verbosity level 
@@ -65,6 +145,29 @@ public class TaskAssignmentGRASPObjectiveFunction implements GRASPObjectiveFunct
 	 */
 	public void setProblemData (TaskAssignment data) {
 		this.data = data;
+		sortAgents();
+		byAgent = (VECTOR != null) ? data.getCostsByAgent() : null;
+		byTask = (VECTOR != null) ? data.getCostsByTask() : null;
+	}
+	
+	/**
+	 * Sorts the agents by increasing cost for each task. Ties are broken by agent index.
+	 * The minimum costs of the remaining tasks are accumulated as well.
+	 */
+	private void sortAgents() {
+		int n = data.getNumTasks();
+		agentOrder = new int[n][n];
+		long[] keys = new long[n];
+		for (int task=0; task<n; task++) {
+			for (int agent=0; agent<n; agent++)
+				keys[agent] = ((long)data.getCostByTask(task, agent) << 32) | agent;
+			Arrays.sort(keys);
+			for (int j=0; j<n; j++)
+				agentOrder[task][j] = (int)keys[j];
+		}
+		suffixMin = new int[n+1];
+		for (int task=n-1; task>=0; task--)
+			suffixMin[task] = suffixMin[task+1] + data.getCostByTask(task, agentOrder[task][0]);
 	}
 	
 	/**
@@ -75,6 +178,25 @@ public class TaskAssignmentGRASPObjectiveFunction implements GRASPObjectiveFunct
 		numNeighbors = num;
 	}
 	
+	/**
+	 * Sets the strategy of local search (steepest descent by default)
+	 * @param strategy the strategy of local search
+	 */
+	public void setStrategy (Strategy strategy) {
+		this.strategy = strategy;
+	}
+	
+	/**
+	 * Sets the search of ejection chains (see {@link EjectionChains}) once local search in the swap
+	 * neighborhood gets stuck. The candidate lists of each task comprise the cheapest agents for it.
+	 * @param candidates the size of the candidate lists (0 = no ejection chains; capped to the number of agents)
+	 * @param length the maximum length of the chains (at least 3)
+	 */
+	public void setEjectionChains (int candidates, int length) {
+		this.candidates = Math.max(0, candidates);
+		chainLength = Math.max(3, length);
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -92,130 +214,630 @@ public class TaskAssignmentGRASPObjectiveFunction implements GRASPObjectiveFunct
 		return (double)(data.getNumTasks()+1)/2.0;
 	}
 
-	/**
-	 * Candidate decision
-	 * @author ccottap
-	 * @version 1.0
-	 */
-	private record Candidate (int agent, int cost) {} 
-	
 	/**
 	 * Creates a task assignment given a sequence of ranks for the decisions at each stage.
 	 * Ranks 0 means the best possible decision, rank 1 the second-best, and so on. If a certain rank
 	 * exceeds the number of possibilities, the last one is picked.
-	 * @param ranks a list of ranks for each decision
+	 * <p>
+	 * The candidates for each task are scanned in the precomputed cost order, skipping
+	 * agents already assigned, so no candidate list needs to be built and sorted. Picking rank d
+	 * for a task takes d steps plus one per assigned agent cheaper than the one picked: O(n + &Sigma; ranks)
+	 * overall if the cheapest agents of a task are seldom taken by previous tasks, and O(n<sup>2</sup>)
+	 * in the worst case (e.g., if all tasks sort the agents alike). An order-statistic tree (e.g., a 
+	 * Fenwick tree) does not improve on the worst case, since the order of the agents differs among 
+	 * tasks and each assignment would have to update the tree of every remaining task.
+	 * @param ranks the rank of each decision
 	 * @return the task assignment
 	 */
-	public List<Integer> decode (List<Integer> ranks) {
+	@Override
+	public int[] decode (int[] ranks) {
+		return construct(ranks).solution();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * The solution is decoded as in {@link #decode(int[])}, and the cost of each assignment 
+	 * is accumulated as it is made.
+	 */
+	@Override
+	public LocalSearchResult<int[]> construct (int[] ranks) {
+		return construct(ranks, Double.POSITIVE_INFINITY);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * The lower bound is the cost of the tasks assigned so far plus the minimum cost of each remaining task.
+	 */
+	@Override
+	public LocalSearchResult<int[]> construct (int[] ranks, double bound) {
 		int n = data.getNumTasks();
-		assert (ranks.size() == n);
+		assert (ranks.length == n);
 		if (verbosityLevel > 0) {
-			System.out.println("Ranks: " + ranks);
-		}
-		List<Integer> info = new ArrayList<Integer>(n);
-		
-		Set<Integer> remaining = new HashSet<Integer>(n); // the agents
-		for (int i=0; i<n; i++) {
-			remaining.add(i);
+			System.out.println("Ranks: " + Arrays.toString(ranks));
 		}
+		int[] info = new int[n];
+		boolean[] assigned = new boolean[n];
+		int total = 0;
 		
 		for (int i=0; i<n; i++) {
-			List<Candidate> candidates = getCandidates (info, remaining);
-			int d = Math.min(candidates.size()-1, ranks.get(i));
-			int agent = candidates.get(d).agent();
-			info.add(agent);
-			remaining.remove(agent);
+			int[] order = agentOrder[i];
+			int d = Math.min(n-i-1, ranks[i]);
+			int pos = 0;
+			while (assigned[order[pos]] || (d-- > 0))
+				pos++;
+			int agent = order[pos];
+			info[i] = agent;
+			assigned[agent] = true;
+			total += data.getCostByTask(i, agent);
+			if (total + suffixMin[i+1] > bound)
+				return new LocalSearchResult<int[]>(null, 0, total + suffixMin[i+1]);
 		}
 		
-		return info;	
+		return new LocalSearchResult<int[]>(info, 0, total);	
 	}
-	
+
 	/**
-	 * Return a list of candidates to extend the solution
-	 * @param info the current solution
-	 * @param remaining the remaining agents to be assigned
-	 * @return an ordered list of candidates (better first)
+	 * {@inheritDoc}
+	 * The fitness of the improved solution is provided.
 	 */
-	private List<Candidate> getCandidates(List<Integer> info, Set<Integer> remaining) {
-		int task = info.size();
-		List<Candidate> candidates = new ArrayList<Candidate> (data.getNumTasks()-task);
-		for (int agent: remaining) {
-			candidates.add(new Candidate(agent, data.getCost(agent, task)));
-		}
-		candidates.sort(Comparator.comparing(Candidate::cost));
-		return candidates;
+	@Override
+	public LocalSearchResult<int[]> improve(int[] sol) {
+		return improve(sol, Double.NaN);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * The fitness of the improved solution is provided if either local search is performed or
+	 * the fitness of the solution is known. In the former case, it is updated with the net change
+	 * of each swap, and the number of moves (swaps and ejection chains) performed is reported.
+	 */
 	@Override
-	public LocalSearchResult improve(Object sol) {
+	public LocalSearchResult<int[]> improve(int[] sol, double fitness) {
 		if (numNeighbors > 0) {
-			@SuppressWarnings("unchecked")
-			List<Integer> info = (List<Integer>) sol;
-			List<Integer> newInfo = new ArrayList<Integer>(data.getNumTasks());
-			int cost = localSearch(info, newInfo);
-			return new LocalSearchResult(newInfo, 2.0*(double)cost/(double)data.getNumTasks());
-			// multiply by 2 because each neighbor involves modifying two agents
+			int n = data.getNumTasks();
+			int[] agent = sol.clone();
+			int[] current = new int[n];
+			for (int i=0; i<n; i++)
+				current[i] = data.getCost(agent[i], i);
+			if (Double.isNaN(fitness)) {
+				int total = 0;
+				for (int i=0; i<n; i++)
+					total += current[i];
+				fitness = total;
+			}
+			int[] order = ((strategy == Strategy.BEST) && (candidates == 0)) ? null : scanOrder(sol);
+			return descend(agent, current, fitness, order);
 		}
 
-		return new LocalSearchResult(sol, 0);
+		return new LocalSearchResult<int[]>(sol, 0, fitness);
 	}
 
 	/**
-	 * Performs steepest-ascent local search on a solution
-	 * @param info the original solution
-	 * @param newInfo the improved solution
-	 * @return the number of neighbors considered
+	 * Performs variable neighborhood descent on a solution: local search in the swap neighborhood
+	 * with the selected strategy, followed (if enabled) by the search of improving ejection chains,
+	 * after which the swap neighborhood is explored again if any was found, and so on. Evaluating an ejection chain 
+	 * of length k counts as k/2 neighbors. The search stops when neither neighborhood yields an 
+	 * improvement or when the number of neighbors evaluated reaches the limit.
+	 * @param agent the agent assigned to each task (modified in place)
+	 * @param current the cost of the current assignment of each task (modified in place)
+	 * @param fitness the fitness of the solution
+	 * @param order the order in which positions are visited (unused by steepest descent without ejection chains)
+	 * @return the improved solution (i.e., agent), the cost of local search, its fitness and the number of moves 
+	 * (swaps and ejection chains) performed
+	 */
+	private LocalSearchResult<int[]> descend(int[] agent, int[] current, double fitness, int[] order) {
+		int n = agent.length;
+		double cost = 0;
+		long moves = 0;
+		while (true) {
+			int budget = numNeighbors - (int)Math.round(cost * n / 2.0);		// cost is 2/n per neighbor
+			if (budget <= 0)
+				break;
+			var ls = switch (strategy) {
+			case BEST -> localSearch(agent, current, fitness, budget);
+			case FIRST -> firstImprovement(agent, current, fitness, budget, order);
+			case DONT_LOOK_BITS -> dontLookBits(agent, current, fitness, budget, order);
+			};
+			cost += ls.cost();
+			moves += ls.moves();
+			fitness = ls.fitness();
+			budget = numNeighbors - (int)Math.round(cost * n / 2.0);
+			if ((candidates == 0) || (budget <= 0))
+				break;
+			var ec = new EjectionChains(agent, current).search(fitness, budget, order);
+			cost += ec.cost();
+			moves += ec.moves();
+			if (ec.fitness() >= fitness)
+				break;
+			fitness = ec.fitness();
+		}
+		return new LocalSearchResult<int[]>(agent, cost, fitness, moves);
+	}
+	
+	/**
+	 * Search of an improving ejection chain, i.e., a cyclic reassignment of agents among
+	 * 3 or more tasks (t<sub>0</sub>, ..., t<sub>k-1</sub>), in which each task takes the agent of 
+	 * the next one and the last task takes the agent of the first one. Chains are built task by task, 
+	 * and each task can only take one of the cheapest agents for it (its candidate list). Chains are 
+	 * only extended while the accumulated net change is negative: since any improving cycle can be 
+	 * rotated so that all its partial sums are negative, no improving chain is missed besides those 
+	 * excluded by the candidate lists. The candidates are sorted by cost, so the scan of a candidate 
+	 * list stops at the first non-improving one, and a chain is only extended by tasks not in it.
 	 */
-	private int localSearch(List<Integer> info, List<Integer> newInfo) {
+	private final class EjectionChains {
+		/**
+		 * the agent assigned to each task
+		 */
+		private final int[] agent;
+		/**
+		 * the cost of the current assignment of each task
+		 */
+		private final int[] current;
+		/**
+		 * the task assigned to each agent
+		 */
+		private final int[] task;
+		/**
+		 * the size of the candidate lists
+		 */
+		private final int size;
+		/**
+		 * the tasks of the chain
+		 */
+		private final int[] chain;
+		/**
+		 * whether each task is in the chain
+		 */
+		private final boolean[] inChain;
+		/**
+		 * total length of the chains evaluated
+		 */
+		private long evaluated;
+		/**
+		 * maximum total length of the chains evaluated
+		 */
+		private long limit;
+		/**
+		 * number of chains performed
+		 */
+		private long performed;
+		
+		/**
+		 * Creates the search
+		 * @param agent the agent assigned to each task (modified in place)
+		 * @param current the cost of the current assignment of each task (modified in place)
+		 */
+		EjectionChains(int[] agent, int[] current) {
+			int n = agent.length;
+			this.agent = agent;
+			this.current = current;
+			task = new int[n];
+			for (int i=0; i<n; i++)
+				task[agent[i]] = i;
+			size = Math.min(candidates, n);
+			chain = new int[chainLength];
+			inChain = new boolean[n];
+		}
+		
+		/**
+		 * Looks for an improving ejection chain starting at each task, visited cyclically in a given
+		 * order, and performs the first one found for each task. The search stops when all tasks 
+		 * have been visited since the last improvement or when the number of neighbors evaluated
+		 * reaches the limit.
+		 * @param fitness the fitness of the solution
+		 * @param budget the maximum number of neighbors to evaluate
+		 * @param order the order in which the first task of the chain is picked
+		 * @return the solution (i.e., agent), the cost of the search, the fitness of the solution and the number of chains performed
+		 */
+		LocalSearchResult<int[]> search(double fitness, int budget, int[] order) {
+			int n = agent.length;
+			evaluated = 0;
+			performed = 0;
+			limit = 2L * budget;
+			int quiet = 0;
+			for (int k=0; (quiet < n) && (evaluated < limit); k=(k+1)%n) {
+				chain[0] = order[k];
+				inChain[order[k]] = true;
+				int gain = extend(0, 0);
+				inChain[order[k]] = false;
+				fitness += gain;
+				quiet = (gain < 0) ? 0 : quiet + 1;
+			}
+			return new LocalSearchResult<int[]>(agent, (double)evaluated/(double)n, fitness, performed);
+			// each chain of length k involves modifying k agents
+		}
+		
+		/**
+		 * Extends the chain, and performs it if it can be closed with an improvement
+		 * @param m the index of the last task of the chain
+		 * @param partial net change in cost of the chain up to the last task
+		 * (excluding the change of agent of the last task)
+		 * @return the net change in cost of the chain performed, or 0 if none
+		 */
+		private int extend(int m, int partial) {
+			int last = chain[m];
+			if (m >= 2) {
+				evaluated += m + 1;
+				int gain = partial + data.getCost(agent[chain[0]], last) - current[last];
+				if (gain < 0) {
+					perform(m);
+					performed++;
+					return gain;
+				}
+			}
+			if ((m+1 < chainLength) && (evaluated < limit)) {
+				int[] order = agentOrder[last];
+				for (int c=0; c<size; c++) {
+					int delta = data.getCostByTask(last, order[c]) - current[last];
+					if (partial + delta >= 0)
+						break;
+					int next = task[order[c]];
+					if (inChain[next])
+						continue;
+					chain[m+1] = next;
+					inChain[next] = true;
+					int gain = extend(m+1, partial + delta);
+					inChain[next] = false;
+					if ((gain < 0) || (evaluated >= limit))
+						return gain;
+				}
+			}
+			return 0;
+		}
+		
+		/**
+		 * Performs the chain
+		 * @param m the index of the last task of the chain
+		 */
+		private void perform(int m) {
+			int first = agent[chain[0]];
+			for (int j=0; j<m; j++) {
+				int t = chain[j];
+				agent[t] = agent[chain[j+1]];
+				current[t] = data.getCost(agent[t], t);
+				task[agent[t]] = t;
+			}
+			int t = chain[m];
+			agent[t] = first;
+			current[t] = data.getCost(first, t);
+			task[first] = t;
+		}
+	}
+	
+	/**
+	 * Performs steepest-ascent local search on a solution. The search stops when a local
+	 * optimum is reached or when the number of neighbors evaluated reaches the limit.
+	 * <p>
+	 * The swap neighborhood is organized by rows: row i comprises the swaps (i, j) with j &lt; i, 
+	 * and the best improving swap of each row is cached. After a swap of positions p and q, only 
+	 * rows p and q are fully rescanned; any other row just re-evaluates its swaps with p and q, 
+	 * unless its cached best swap involved p or q (in which case it is rescanned). Ties are broken
+	 * as in a full scan in lexicographic order, so the trajectory is that of plain steepest descent.
+	 * @param agent the agent assigned to each task (modified in place)
+	 * @param current the cost of the current assignment of each task (modified in place)
+	 * @param fitness the fitness of the solution
+	 * @param budget the maximum number of neighbors to evaluate
+	 * @return the improved solution (i.e., agent), the cost of local search, its fitness and the number of swaps performed
+	 */
+	private LocalSearchResult<int[]> localSearch(int[] agent, int[] current, double fitness, int budget) {
 		int n = data.getNumTasks();
+		int[] rowBest = new int[n];		// best (negative) net gain in each row, 0 if none
+		int[] rowArg = new int[n];		// position of the best swap in each row, -1 if none
 		int iter = 0;
-		for (int i=0; i<n; i++) {
-			newInfo.add(info.get(i));
-		}
-		while (iter < numNeighbors) {
+		int moves = 0;
+		for (int i=1; i<n; i++) 
+			iter += scanRow(i, agent, current, rowBest, rowArg);
+		
+		while (iter < budget) {
 			int best = 0;
 			int bi = -1;
-			int bj = -1;
 			for (int i=1; i<n; i++) {
-				int agent1 = newInfo.get(i);
-				int c1 = data.getCost(agent1, i);
-				for (int j=0; j<i; j++) {
-					int agent2 = newInfo.get(j);
-					int net = data.getCost(agent1, j) + data.getCost(agent2, i) - data.getCost(agent2, j) - c1;
-					if (net < best) {
-						best = net;
-						bi = i;
-						bj = j;
-					}
+				if (rowBest[i] < best) {
+					best = rowBest[i];
+					bi = i;
 				}
 			}
-			if (best < 0) {
-				int tmp = newInfo.get(bi);
-				newInfo.set(bi, newInfo.get(bj));
-				newInfo.set(bj, tmp);
-			}
-			else 
+			if (best == 0) 
 				break;
+			
+			fitness += best;
+			int bj = rowArg[bi];
+			swap(bi, bj, agent, current);
+			moves++;
+			
+			for (int i=1; i<n; i++) {
+				if ((i == bi) || (i == bj) || (rowArg[i] == bi) || (rowArg[i] == bj)) {
+					iter += scanRow(i, agent, current, rowBest, rowArg);
+				}
+				else {
+					if (bj < i) {
+						iter++;
+						offer(i, bj, net(i, bj, agent, current), rowBest, rowArg);
+					}
+					if (bi < i) {
+						iter++;
+						offer(i, bi, net(i, bi, agent, current), rowBest, rowArg);
+					}
+				}
+			}
 		}
 		
-		
-		return iter;
+		return new LocalSearchResult<int[]>(agent, 2.0*(double)iter/(double)n, fitness, moves);
+		// multiply by 2 because each neighbor involves modifying two agents
+	}
+	
+	/**
+	 * Returns a random order in which the positions of a solution are scanned. The order is 
+	 * derived from the hash code of the solution, so it is deterministic (as required by the 
+	 * solution cache and the concurrent processing of iterations) but varies among solutions.
+	 * @param sol the solution
+	 * @return a permutation of the positions
+	 */
+	private static int[] scanOrder(int[] sol) {
+		int n = sol.length;
+		SplittableRandom rnd = new SplittableRandom(Arrays.hashCode(sol));
+		int[] order = new int[n];
+		for (int i=0; i<n; i++)
+			order[i] = i;
+		for (int i=n-1; i>0; i--) {
+			int j = rnd.nextInt(i+1);
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+		return order;
+	}
+	
+	/**
+	 * Performs first-improvement local search on a solution. Positions are visited cyclically
+	 * in a given order; the swaps of each position with the following ones in the order (cyclically)
+	 * are evaluated, and the first improving one is performed. The search stops when all positions
+	 * have been visited since the last improvement or when the number of neighbors evaluated 
+	 * reaches the limit.
+	 * @param agent the agent assigned to each task (modified in place)
+	 * @param current the cost of the current assignment of each task (modified in place)
+	 * @param fitness the fitness of the solution
+	 * @param budget the maximum number of neighbors to evaluate
+	 * @param order the order in which positions are visited
+	 * @return the improved solution (i.e., agent), the cost of local search, its fitness and the number of swaps performed
+	 */
+	private LocalSearchResult<int[]> firstImprovement(int[] agent, int[] current, double fitness, int budget, int[] order) {
+		int n = agent.length;
+		int iter = 0;
+		int moves = 0;
+		int quiet = 0;
+		for (int k=0; (quiet < n) && (iter < budget); k=(k+1)%n) {
+			int p = order[k];
+			int gain = 0;
+			for (int m=1; (m < n) && (iter < budget); m++) {
+				int q = order[(k+m)%n];
+				iter++;
+				gain = net(p, q, agent, current);
+				if (gain < 0) {
+					swap(p, q, agent, current);
+					fitness += gain;
+					moves++;
+					break;
+				}
+			}
+			quiet = (gain < 0) ? 0 : quiet + 1;
+		}
+		return new LocalSearchResult<int[]>(agent, 2.0*(double)iter/(double)n, fitness, moves);
+		// multiply by 2 because each neighbor involves modifying two agents
+	}
+	
+	/**
+	 * Performs first-improvement local search with don't-look bits on a solution. Positions
+	 * are kept in a queue, initially in a given order. The swaps of the position at the head of
+	 * the queue with the following ones in the order (cyclically) are evaluated, and the first 
+	 * improving one is performed; both positions involved are then appended to the queue unless
+	 * they are already queued. A position without improving swaps is dropped (i.e., its
+	 * don't-look bit is set). The search stops when the queue is empty or when the number of 
+	 * neighbors evaluated reaches the limit.
+	 * @param agent the agent assigned to each task (modified in place)
+	 * @param current the cost of the current assignment of each task (modified in place)
+	 * @param fitness the fitness of the solution
+	 * @param budget the maximum number of neighbors to evaluate
+	 * @param order the initial order of the queue
+	 * @return the improved solution (i.e., agent), the cost of local search, its fitness and the number of swaps performed
+	 */
+	private LocalSearchResult<int[]> dontLookBits(int[] agent, int[] current, double fitness, int budget, int[] order) {
+		int n = agent.length;
+		int[] index = new int[n];		// index of each position in the order
+		for (int k=0; k<n; k++)
+			index[order[k]] = k;
+		int[] queue = order.clone();
+		boolean[] queued = new boolean[n];
+		Arrays.fill(queued, true);
+		int head = 0;
+		int size = n;
+		int iter = 0;
+		int moves = 0;
+		while ((size > 0) && (iter < budget)) {
+			int p = queue[head];
+			head = (head+1)%n;
+			size--;
+			queued[p] = false;
+			int k = index[p];
+			for (int m=1; (m < n) && (iter < budget); m++) {
+				int q = order[(k+m)%n];
+				iter++;
+				int gain = net(p, q, agent, current);
+				if (gain < 0) {
+					swap(p, q, agent, current);
+					fitness += gain;
+					moves++;
+					queue[(head+size)%n] = p;
+					size++;
+					queued[p] = true;
+					if (!queued[q]) {
+						queue[(head+size)%n] = q;
+						size++;
+						queued[q] = true;
+					}
+					break;
+				}
+			}
+		}
+		return new LocalSearchResult<int[]>(agent, 2.0*(double)iter/(double)n, fitness, moves);
+		// multiply by 2 because each neighbor involves modifying two agents
+	}
+	
+	/**
+	 * Swaps the agents of two tasks
+	 * @param i a task
+	 * @param j another task
+	 * @param agent the agent assigned to each task (modified in place)
+	 * @param current the cost of the current assignment of each task (modified in place)
+	 */
+	private void swap(int i, int j, int[] agent, int[] current) {
+		int tmp = agent[i];
+		agent[i] = agent[j];
+		agent[j] = tmp;
+		current[i] = data.getCost(agent[i], i);
+		current[j] = data.getCost(agent[j], j);
+	}
+	
+	/**
+	 * Computes the net change in cost when swapping the agents of two tasks
+	 * @param i a task
+	 * @param j another task
+	 * @param agent the agent assigned to each task
+	 * @param current the cost of the current assignment of each task
+	 * @return the net change in cost (negative if the swap is improving)
+	 */
+	private int net(int i, int j, int[] agent, int[] current) {
+		return data.getCost(agent[i], j) + data.getCostByTask(i, agent[j]) - current[j] - current[i];
+	}
+	
+	/**
+	 * Evaluates all swaps (i, j) with j &lt; i and caches the best improving one
+	 * @param i the row
+	 * @param agent the agent assigned to each task
+	 * @param current the cost of the current assignment of each task
+	 * @param rowBest best net change in each row
+	 * @param rowArg position of the best swap in each row
+	 * @return the number of neighbors evaluated
+	 */
+	private int scanRow(int i, int[] agent, int[] current, int[] rowBest, int[] rowArg) {
+		if (byTask != null) {
+			VECTOR.scanRow(byAgent, byTask, agent.length, i, agent, current, rowBest, rowArg);
+			return i;
+		}
+		int best = 0;
+		int arg = -1;
+		int a1 = agent[i];
+		int c1 = current[i];
+		for (int j=0; j<i; j++) {
+			int net = data.getCost(a1, j) + data.getCostByTask(i, agent[j]) - current[j] - c1;
+			if (net < best) {
+				best = net;
+				arg = j;
+			}
+		}
+		rowBest[i] = best;
+		rowArg[i] = arg;
+		return i;
+	}
+	
+	/**
+	 * Updates the cached best swap of a row with a re-evaluated swap. Ties are
+	 * resolved in favor of the lowest position, as in a full scan of the row.
+	 * @param i the row
+	 * @param j the position of the swap within the row
+	 * @param net the net change in cost of the swap
+	 * @param rowBest best net change in each row
+	 * @param rowArg position of the best swap in each row
+	 */
+	private static void offer(int i, int j, int net, int[] rowBest, int[] rowArg) {
+		if ((net < rowBest[i]) || ((net < 0) && (net == rowBest[i]) && (j < rowArg[i]))) {
+			rowBest[i] = net;
+			rowArg[i] = j;
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
-	public double evaluate(Object sol) {
-		List<Integer> info = (List<Integer>) sol;
+	public double evaluate(int[] sol) {
 		int n = data.getNumTasks();
 		int total = 0;
 		for (int i=0; i<n; i++) {
-			total += data.getCost(info.get(i), i);
+			total += data.getCost(sol[i], i);
 		}
 		return total;
 	}
-
+	
+	/**
+	 * {@inheritDoc}
+	 * The distance is the number of tasks assigned to different agents.
+	 */
+	@Override
+	public int distance(int[] a, int[] b) {
+		int d = 0;
+		for (int i=0; i<a.length; i++)
+			if (a[i] != b[i])
+				d++;
+		return d;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * Each step assigns a task to its agent in the guiding solution, swapping it with the task 
+	 * currently assigned to that agent. The best such swap is picked (ties broken by task index).
+	 */
+	@Override
+	public LocalSearchResult<int[]> relinkStep(int[] current, double fitness, int[] guide) {
+		int n = data.getNumTasks();
+		int[] task = new int[n];
+		for (int i=0; i<n; i++)
+			task[current[i]] = i;
+		int best = Integer.MAX_VALUE;
+		int bi = -1;
+		int candidates = 0;
+		for (int i=0; i<n; i++) {
+			if (current[i] != guide[i]) {
+				candidates++;
+				int j = task[guide[i]];
+				int net = data.getCost(guide[i], i) + data.getCost(current[i], j) 
+						- data.getCost(current[i], i) - data.getCost(guide[i], j);
+				if (net < best) {
+					best = net;
+					bi = i;
+				}
+			}
+		}
+		if (bi < 0)
+			return null;
+		int[] next = current.clone();
+		int bj = task[guide[bi]];
+		next[bj] = current[bi];
+		next[bi] = guide[bi];
+		return new LocalSearchResult<int[]>(next, 2.0*(double)candidates/(double)n, fitness + best);
+		// multiply by 2 because each candidate involves modifying two agents
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * The rank of each task is the number of agents not yet assigned that are cheaper 
+	 * (or equally expensive and with lower index) than its agent.
+	 */
+	@Override
+	public int[] encode(int[] sol) {
+		int n = data.getNumTasks();
+		int[] ranks = new int[n];
+		boolean[] assigned = new boolean[n];
+		for (int i=0; i<n; i++) {
+			int[] order = agentOrder[i];
+			int r = 0;
+			for (int pos=0; order[pos] != sol[i]; pos++)
+				if (!assigned[order[pos]])
+					r++;
+			ranks[i] = r;
+			assigned[sol[i]] = true;
+		}
+		return ranks;
+	}
 
 }
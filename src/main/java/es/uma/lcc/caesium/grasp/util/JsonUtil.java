@@ -41,5 +41,25 @@ public class JsonUtil {
 	public static double getDouble (JsonObject obj, String key) {
 		return ((BigDecimal)obj.get(key)).doubleValue();
 	}
+	
+	/**
+	 * Convenience method to obtain a boolean from the JSON object
+	 * @param obj the JSON object
+	 * @param key the key whose value is sought
+	 * @return the value of the key as a boolean
+	 */
+	public static boolean getBoolean (JsonObject obj, String key) {
+		return (Boolean)obj.get(key);
+	}
 
+	/**
+	 * Convenience method to obtain a string from the JSON object
+	 * @param obj the JSON object
+	 * @param key the key whose value is sought
+	 * @return the value of the key as a string
+	 */
+	public static String getString (JsonObject obj, String key) {
+		return (String)obj.get(key);
+	}
+	
 }
@@ -0,0 +1,38 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+/**
+ * Solution of a task assignment problem found by an exact solver, along with a
+ * lower bound of the optimal cost (the value of a feasible solution of the dual LP)
+ * 
+ * @param agent      the agent assigned to each task
+ * @param cost       the cost of the assignment
+ * @param lowerBound a lower bound of the optimal cost
+ * @author ccottap
+ *
+ */
+public record AssignmentSolution(int[] agent, long cost, double lowerBound) {
+	/**
+	 * tolerance when comparing the cost and the lower bound
+	 */
+	private static final double TOLERANCE = 1e-9;
+	
+	/**
+	 * Indicates whether the assignment is proven optimal, i.e., whether its cost 
+	 * matches the lower bound (rounded up, since costs are integer)
+	 * 
+	 * @return true if the assignment is proven optimal
+	 */
+	public boolean isOptimal() {
+		return cost <= Math.ceil(lowerBound - TOLERANCE);
+	}
+	
+	/**
+	 * Returns the relative gap between the cost of a solution and the lower bound
+	 * 
+	 * @param value the cost of a solution
+	 * @return the relative gap (value - lowerBound) / lowerBound
+	 */
+	public double gap(double value) {
+		return (value - lowerBound) / Math.max(TOLERANCE, Math.abs(lowerBound));
+	}
+}
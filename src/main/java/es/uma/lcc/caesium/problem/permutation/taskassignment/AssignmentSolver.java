@@ -0,0 +1,17 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+/**
+ * Exact solver for the task assignment problem
+ * 
+ * @author ccottap
+ *
+ */
+public interface AssignmentSolver {
+	/**
+	 * Solves a task assignment problem
+	 * 
+	 * @param problem the problem instance
+	 * @return an optimal assignment and a lower bound of the optimal cost
+	 */
+	AssignmentSolution solve(TaskAssignment problem);
+}
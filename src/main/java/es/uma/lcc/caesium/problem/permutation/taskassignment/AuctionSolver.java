@@ -0,0 +1,119 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+import java.util.Arrays;
+
+/**
+ * Auction algorithm for the task assignment problem, with epsilon-scaling. Unassigned tasks
+ * bid for their best agent given the current prices of agents, raising its price by the 
+ * difference with the second-best agent plus epsilon. Costs are scaled by n+1 so that the 
+ * last phase (epsilon = 1) yields an optimal assignment. A lower bound is obtained from
+ * the final prices, which define a feasible solution of the dual LP.
+ * 
+ * @author ccottap
+ *
+ */
+public class AuctionSolver implements AssignmentSolver {
+	/**
+	 * default factor by which epsilon is reduced in each phase
+	 */
+	private static final int SCALING = 5;
+	/**
+	 * factor by which epsilon is reduced in each phase
+	 */
+	private final int scaling;
+	
+	/**
+	 * Creates the solver with the default scaling factor
+	 */
+	public AuctionSolver() {
+		this(SCALING);
+	}
+	
+	/**
+	 * Creates the solver
+	 * 
+	 * @param scaling the factor by which epsilon is reduced in each phase (at least 2)
+	 */
+	public AuctionSolver(int scaling) {
+		this.scaling = Math.max(2, scaling);
+	}
+
+	@Override
+	public AssignmentSolution solve(TaskAssignment problem) {
+		int n = problem.getNumTasks();
+		long scale = n + 1;
+		long maxCost = 0;
+		for (int i=0; i<n; i++)
+			for (int j=0; j<n; j++)
+				maxCost = Math.max(maxCost, Math.abs((long)problem.getCostByTask(i, j)));
+		
+		long[] price = new long[n];
+		int[] agent = new int[n];
+		int[] owner = new int[n];
+		int[] queue = new int[n];
+		long eps = Math.max(1, maxCost * scale / 2);
+		while (true) {
+			Arrays.fill(agent, -1);
+			Arrays.fill(owner, -1);
+			for (int i=0; i<n; i++)
+				queue[i] = i;
+			int pending = n;
+			while (pending > 0) {
+				int i = queue[--pending];
+				// best and second-best agent in terms of (negative) cost plus price
+				long best = Long.MAX_VALUE;
+				long second = Long.MAX_VALUE;
+				int bj = -1;
+				for (int j=0; j<n; j++) {
+					long value = problem.getCostByTask(i, j) * scale + price[j];
+					if (value < best) {
+						second = best;
+						best = value;
+						bj = j;
+					}
+					else if (value < second)
+						second = value;
+				}
+				price[bj] += ((second == Long.MAX_VALUE) ? 0 : second - best) + eps;
+				if (owner[bj] >= 0) {
+					agent[owner[bj]] = -1;
+					queue[pending++] = owner[bj];
+				}
+				owner[bj] = i;
+				agent[i] = bj;
+			}
+			if (eps == 1)
+				break;
+			eps = Math.max(1, eps / scaling);
+		}
+		
+		long cost = 0;
+		for (int i=0; i<n; i++)
+			cost += problem.getCostByTask(i, agent[i]);
+		return new AssignmentSolution(agent, cost, lowerBound(problem, price, scale));
+	}
+	
+	/**
+	 * Computes the lower bound given by some prices of agents. Each task is given 
+	 * the dual value min_j (cost(i, j) + price(j)), and each agent the dual value -price(j).
+	 * 
+	 * @param problem the problem instance
+	 * @param price   the price of each agent (scaled)
+	 * @param scale   the scaling factor of costs and prices
+	 * @return the lower bound
+	 */
+	private static double lowerBound(TaskAssignment problem, long[] price, long scale) {
+		int n = problem.getNumTasks();
+		long bound = 0;
+		for (int i=0; i<n; i++) {
+			long min = Long.MAX_VALUE;
+			for (int j=0; j<n; j++)
+				min = Math.min(min, problem.getCostByTask(i, j) * scale + price[j]);
+			bound += min;
+		}
+		for (int j=0; j<n; j++)
+			bound -= price[j];
+		return (double)bound / (double)scale;
+	}
+
+}
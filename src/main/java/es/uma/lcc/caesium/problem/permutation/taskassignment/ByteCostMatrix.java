@@ -0,0 +1,61 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+/**
+ * Cost matrix with unsigned 8-bit elements, stored by agent and optionally by task in flat arrays
+ * 
+ * @author ccottap
+ *
+ */
+class ByteCostMatrix extends CostMatrix {
+	/**
+	 * largest cost that can be stored
+	 */
+	static final int MAX_VALUE = 0xFF;
+	/**
+	 * costs by agent
+	 */
+	private final byte[] byAgent;
+	/**
+	 * costs by task (null if not stored)
+	 */
+	private final byte[] byTask;
+	
+	/**
+	 * Creates the matrix with all costs set to 0
+	 * 
+	 * @param n      the number of agents/tasks
+	 * @param byTask whether the costs are also stored by task
+	 */
+	ByteCostMatrix(int n, boolean byTask) {
+		super(n);
+		byAgent = new byte[n * n];
+		this.byTask = byTask ? new byte[n * n] : null;
+	}
+
+	@Override
+	public int get(int agent, int task) {
+		return byAgent[agent * n + task] & 0xFF;
+	}
+
+	@Override
+	public int getByTask(int task, int agent) {
+		return (byTask != null) ? (byTask[task * n + agent] & 0xFF) : (byAgent[agent * n + task] & 0xFF);
+	}
+
+	@Override
+	void set(int agent, int task, int cost) {
+		byAgent[agent * n + task] = (byte) cost;
+		if (byTask != null)
+			byTask[task * n + agent] = (byte) cost;
+	}
+
+	@Override
+	public boolean hasCopyByTask() {
+		return byTask != null;
+	}
+
+	@Override
+	public CostMatrix withCopyByTask() {
+		return (byTask != null) ? this : new ByteCostMatrix(n, true).copy(this);
+	}
+}
@@ -0,0 +1,186 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+/**
+ * Square matrix of assignment costs. Costs are stored agent by agent (the costs of each agent
+ * for all tasks are adjacent) and, optionally, in a second flat, contiguous copy task by task 
+ * (the costs of all agents for each task are adjacent; see {@link #withCopyByTask()}), so that 
+ * both rows and columns are scanned sequentially at the price of doubling the memory used.
+ * Subclasses determine the type of the elements.
+ * 
+ * @author ccottap
+ *
+ */
+public abstract class CostMatrix {
+	/**
+	 * size of the blocks used to transpose the matrix
+	 */
+	protected static final int BLOCK = 64;
+	/**
+	 * number of agents/tasks
+	 */
+	protected final int n;
+	
+	/**
+	 * Creates the matrix
+	 * 
+	 * @param n the number of agents/tasks
+	 */
+	protected CostMatrix(int n) {
+		this.n = checkSize(n);
+	}
+	
+	/**
+	 * Checks that the costs of an instance can be stored in a flat array
+	 * 
+	 * @param n the number of agents/tasks
+	 * @return the number of agents/tasks
+	 * @throws IllegalArgumentException if the number of agents/tasks is negative or too large
+	 */
+	static int checkSize(int n) {
+		if ((n < 0) || ((long)n * n > Integer.MAX_VALUE))
+			throw new IllegalArgumentException("invalid number of agents/tasks: " + n);
+		return n;
+	}
+	
+	/**
+	 * Creates a matrix of integers stored agent by agent, with all costs set to 0
+	 * 
+	 * @param n the number of agents/tasks
+	 * @return the cost matrix
+	 */
+	static CostMatrix create(int n) {
+		return new RowCostMatrix(n);
+	}
+	
+	/**
+	 * Creates a matrix stored agent by agent, with all costs set to 0, whose elements 
+	 * have the narrowest type that can hold the costs in a given range
+	 * 
+	 * @param n   the number of agents/tasks
+	 * @param min the smallest cost
+	 * @param max the largest cost
+	 * @return the cost matrix
+	 */
+	static CostMatrix create(int n, int min, int max) {
+		return switch (elementBytes(min, max)) {
+		case Byte.BYTES -> new ByteCostMatrix(n, false);
+		case Short.BYTES -> new ShortCostMatrix(n, false);
+		default -> new RowCostMatrix(n);
+		};
+	}
+	
+	/**
+	 * Returns the size of the narrowest element type that can hold the costs in a given range
+	 * 
+	 * @param min the smallest cost
+	 * @param max the largest cost
+	 * @return the size of the elements in bytes
+	 */
+	static int elementBytes(int min, int max) {
+		if ((min >= 0) && (max <= ByteCostMatrix.MAX_VALUE))
+			return Byte.BYTES;
+		if ((min >= 0) && (max <= ShortCostMatrix.MAX_VALUE))
+			return Short.BYTES;
+		return Integer.BYTES;
+	}
+	
+	/**
+	 * Returns the number of agents/tasks
+	 * 
+	 * @return the number of agents/tasks
+	 */
+	public int size() {
+		return n;
+	}
+	
+	/**
+	 * Returns the cost of assigning a task to an agent, using the costs by agent
+	 * 
+	 * @param agent the agent index
+	 * @param task  the task index
+	 * @return the cost of the assignment
+	 */
+	public abstract int get(int agent, int task);
+	
+	/**
+	 * Returns the cost of assigning a task to an agent, using the copy by task if any
+	 * 
+	 * @param task  the task index
+	 * @param agent the agent index
+	 * @return the cost of the assignment
+	 */
+	public abstract int getByTask(int task, int agent);
+	
+	/**
+	 * Sets the cost of assigning a task to an agent (in all copies). Only used while
+	 * the matrix is filled, since matrices are not modified afterwards.
+	 * 
+	 * @param agent the agent index
+	 * @param task  the task index
+	 * @param cost  the cost of the assignment, which must fit in the type of the elements
+	 */
+	abstract void set(int agent, int task, int cost);
+	
+	/**
+	 * Indicates whether the costs are also stored task by task
+	 * 
+	 * @return true if there is a copy of the costs by task
+	 */
+	public abstract boolean hasCopyByTask();
+	
+	/**
+	 * Returns a matrix with the same costs and element type, which stores them both by agent and 
+	 * by task
+	 * 
+	 * @return a matrix with the same costs (possibly this one)
+	 */
+	public abstract CostMatrix withCopyByTask();
+	
+	/**
+	 * Copies the costs of another matrix of the same size, by blocks so that the copy
+	 * by task (if any) is filled efficiently
+	 * 
+	 * @param other the original matrix, whose costs must fit in the type of the elements
+	 * @return this matrix
+	 */
+	CostMatrix copy(CostMatrix other) {
+		for (int ib = 0; ib < n; ib += BLOCK)
+			for (int jb = 0; jb < n; jb += BLOCK)
+				for (int i = ib; i < Math.min(ib + BLOCK, n); i++)
+					for (int j = jb; j < Math.min(jb + BLOCK, n); j++)
+						set(i, j, other.get(i, j));
+		return this;
+	}
+	
+	/**
+	 * Returns a matrix with the same costs and the narrowest element type that can hold them
+	 * (unsigned bytes, unsigned shorts or integers), keeping the copy by task if any
+	 * 
+	 * @return a matrix with the same costs (possibly this one)
+	 */
+	public CostMatrix narrow() {
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				int c = get(i, j);
+				min = Math.min(min, c);
+				max = Math.max(max, c);
+			}
+		}
+		CostMatrix narrowed;
+		if ((min >= 0) && (max <= ByteCostMatrix.MAX_VALUE)) {
+			if (this instanceof ByteCostMatrix)
+				return this;
+			narrowed = new ByteCostMatrix(n, hasCopyByTask());
+		}
+		else if ((min >= 0) && (max <= ShortCostMatrix.MAX_VALUE)) {
+			if (this instanceof ShortCostMatrix)
+				return this;
+			narrowed = new ShortCostMatrix(n, hasCopyByTask());
+		}
+		else
+			return this;
+		return narrowed.copy(this);
+	}
+}
@@ -0,0 +1,80 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+import java.util.Arrays;
+
+/**
+ * Hungarian algorithm for the task assignment problem, in its O(n^3) shortest augmenting 
+ * path form. Tasks are added one at a time, and the assignment is augmented along a shortest 
+ * path with respect to the reduced costs, which are kept non-negative by the dual potentials
+ * of tasks and agents. The final potentials are an optimal dual solution, so the lower bound 
+ * equals the optimal cost.
+ * 
+ * @author ccottap
+ *
+ */
+public class HungarianSolver implements AssignmentSolver {
+
+	@Override
+	public AssignmentSolution solve(TaskAssignment problem) {
+		int n = problem.getNumTasks();
+		// index 0 is a dummy task/agent; task i and agent j are at positions i+1 and j+1
+		long[] u = new long[n+1];		// potential of each task
+		long[] v = new long[n+1];		// potential of each agent
+		int[] owner = new int[n+1];		// task assigned to each agent (0 if none)
+		int[] way = new int[n+1];		// previous agent in the shortest path
+		long[] minv = new long[n+1];
+		boolean[] used = new boolean[n+1];
+		
+		for (int i=1; i<=n; i++) {
+			owner[0] = i;
+			int j0 = 0;
+			Arrays.fill(minv, Long.MAX_VALUE);
+			Arrays.fill(used, false);
+			do {
+				used[j0] = true;
+				int i0 = owner[j0];
+				long delta = Long.MAX_VALUE;
+				int j1 = 0;
+				for (int j=1; j<=n; j++) {
+					if (!used[j]) {
+						long cur = problem.getCostByTask(i0-1, j-1) - u[i0] - v[j];
+						if (cur < minv[j]) {
+							minv[j] = cur;
+							way[j] = j0;
+						}
+						if (minv[j] < delta) {
+							delta = minv[j];
+							j1 = j;
+						}
+					}
+				}
+				for (int j=0; j<=n; j++) {
+					if (used[j]) {
+						u[owner[j]] += delta;
+						v[j] -= delta;
+					}
+					else
+						minv[j] -= delta;
+				}
+				j0 = j1;
+			} while (owner[j0] != 0);
+			do {
+				int j1 = way[j0];
+				owner[j0] = owner[j1];
+				j0 = j1;
+			} while (j0 != 0);
+		}
+		
+		int[] agent = new int[n];
+		long cost = 0;
+		for (int j=1; j<=n; j++) {
+			agent[owner[j]-1] = j-1;
+			cost += problem.getCost(j-1, owner[j]-1);
+		}
+		long bound = 0;
+		for (int k=1; k<=n; k++)
+			bound += u[k] + v[k];
+		return new AssignmentSolution(agent, cost, bound);
+	}
+
+}
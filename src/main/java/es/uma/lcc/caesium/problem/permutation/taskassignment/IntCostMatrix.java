@@ -0,0 +1,73 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+/**
+ * Cost matrix with integer elements, stored both by agent and by task in flat arrays
+ * 
+ * @author ccottap
+ *
+ */
+class IntCostMatrix extends CostMatrix {
+	/**
+	 * costs by agent
+	 */
+	private final int[] byAgent;
+	/**
+	 * costs by task
+	 */
+	private final int[] byTask;
+	
+	/**
+	 * Creates the matrix with all costs set to 0
+	 * 
+	 * @param n the number of agents/tasks
+	 */
+	IntCostMatrix(int n) {
+		super(n);
+		byAgent = new int[n * n];
+		byTask = new int[n * n];
+	}
+
+	/**
+	 * Returns the costs by agent
+	 * 
+	 * @return the costs, agent by agent (not copied)
+	 */
+	int[] byAgent() {
+		return byAgent;
+	}
+	
+	/**
+	 * Returns the costs by task
+	 * 
+	 * @return the costs, task by task (not copied)
+	 */
+	int[] byTask() {
+		return byTask;
+	}
+
+	@Override
+	public int get(int agent, int task) {
+		return byAgent[agent * n + task];
+	}
+
+	@Override
+	public int getByTask(int task, int agent) {
+		return byTask[task * n + agent];
+	}
+
+	@Override
+	void set(int agent, int task, int cost) {
+		byAgent[agent * n + task] = cost;
+		byTask[task * n + agent] = cost;
+	}
+
+	@Override
+	public boolean hasCopyByTask() {
+		return true;
+	}
+
+	@Override
+	public CostMatrix withCopyByTask() {
+		return this;
+	}
+}
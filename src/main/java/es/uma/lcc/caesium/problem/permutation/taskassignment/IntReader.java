@@ -0,0 +1,102 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads whitespace-separated integers from a channel, parsing bytes directly
+ * from a buffer. Read errors are reported as unchecked exceptions, and format
+ * errors (including any byte other than digits, a leading minus sign and ASCII 
+ * whitespace, e.g., a byte order mark) as in {@link java.util.Scanner}.
+ * 
+ * @author ccottap
+ *
+ */
+class IntReader {
+	/**
+	 * size of the buffer
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/**
+	 * the source of data
+	 */
+	private final ReadableByteChannel channel;
+	/**
+	 * buffer of data read from the channel
+	 */
+	private final ByteBuffer buffer;
+	
+	/**
+	 * Creates the reader
+	 * 
+	 * @param channel the source of data
+	 */
+	IntReader(ReadableByteChannel channel) {
+		this.channel = channel;
+		buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		buffer.flip();
+	}
+	
+	/**
+	 * Returns the next byte without consuming it
+	 * 
+	 * @return the next byte (unsigned), or -1 at the end of the data
+	 */
+	private int peek() {
+		if (!buffer.hasRemaining()) {
+			buffer.clear();
+			try {
+				int n;
+				do {
+					n = channel.read(buffer);
+				} while (n == 0);
+				buffer.flip();
+				if (n < 0)
+					return -1;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return buffer.get(buffer.position()) & 0xFF;
+	}
+	
+	/**
+	 * Reads the next integer
+	 * 
+	 * @return the next integer
+	 */
+	int nextInt() {
+		int c = peek();
+		while ((c == ' ') || (c == '\t') || (c == '\n') || (c == '\r')) {
+			buffer.get();
+			c = peek();
+		}
+		if (c < 0)
+			throw new NoSuchElementException();
+		boolean negative = (c == '-');
+		if (negative) {
+			buffer.get();
+			c = peek();
+		}
+		if ((c < '0') || (c > '9'))
+			throw new InputMismatchException();
+		long value = 0;
+		do {
+			value = 10 * value + (c - '0');
+			if (value > (long)Integer.MAX_VALUE + 1)
+				throw new InputMismatchException();
+			buffer.get();
+			c = peek();
+		} while ((c >= '0') && (c <= '9'));
+		if ((c >= 0) && (c != ' ') && (c != '\t') && (c != '\n') && (c != '\r'))
+			throw new InputMismatchException();
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE)
+			throw new InputMismatchException();
+		return (int)value;
+	}
+}
@@ -0,0 +1,49 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+/**
+ * Cost matrix with integer elements, stored agent by agent as an array of rows
+ * 
+ * @author ccottap
+ *
+ */
+class RowCostMatrix extends CostMatrix {
+	/**
+	 * costs of each agent for all tasks
+	 */
+	private final int[][] rows;
+	
+	/**
+	 * Creates the matrix with all costs set to 0
+	 * 
+	 * @param n the number of agents/tasks
+	 */
+	RowCostMatrix(int n) {
+		super(n);
+		rows = new int[n][n];
+	}
+
+	@Override
+	public int get(int agent, int task) {
+		return rows[agent][task];
+	}
+
+	@Override
+	public int getByTask(int task, int agent) {
+		return rows[agent][task];
+	}
+
+	@Override
+	void set(int agent, int task, int cost) {
+		rows[agent][task] = cost;
+	}
+
+	@Override
+	public boolean hasCopyByTask() {
+		return false;
+	}
+
+	@Override
+	public CostMatrix withCopyByTask() {
+		return new IntCostMatrix(n).copy(this);
+	}
+}
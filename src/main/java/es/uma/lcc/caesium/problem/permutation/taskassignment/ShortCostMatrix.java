@@ -0,0 +1,61 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+/**
+ * Cost matrix with unsigned 16-bit elements, stored by agent and optionally by task in flat arrays
+ * 
+ * @author ccottap
+ *
+ */
+class ShortCostMatrix extends CostMatrix {
+	/**
+	 * largest cost that can be stored
+	 */
+	static final int MAX_VALUE = 0xFFFF;
+	/**
+	 * costs by agent
+	 */
+	private final short[] byAgent;
+	/**
+	 * costs by task (null if not stored)
+	 */
+	private final short[] byTask;
+	
+	/**
+	 * Creates the matrix with all costs set to 0
+	 * 
+	 * @param n      the number of agents/tasks
+	 * @param byTask whether the costs are also stored by task
+	 */
+	ShortCostMatrix(int n, boolean byTask) {
+		super(n);
+		byAgent = new short[n * n];
+		this.byTask = byTask ? new short[n * n] : null;
+	}
+
+	@Override
+	public int get(int agent, int task) {
+		return byAgent[agent * n + task] & 0xFFFF;
+	}
+
+	@Override
+	public int getByTask(int task, int agent) {
+		return (byTask != null) ? (byTask[task * n + agent] & 0xFFFF) : (byAgent[agent * n + task] & 0xFFFF);
+	}
+
+	@Override
+	void set(int agent, int task, int cost) {
+		byAgent[agent * n + task] = (short) cost;
+		if (byTask != null)
+			byTask[task * n + agent] = (short) cost;
+	}
+
+	@Override
+	public boolean hasCopyByTask() {
+		return byTask != null;
+	}
+
+	@Override
+	public CostMatrix withCopyByTask() {
+		return (byTask != null) ? this : new ShortCostMatrix(n, true).copy(this);
+	}
+}
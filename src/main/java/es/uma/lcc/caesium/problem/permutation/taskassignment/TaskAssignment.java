@@ -1,15 +1,27 @@
 package es.uma.lcc.caesium.problem.permutation.taskassignment;
 
-import java.io.File;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.InputMismatchException;
 import java.util.Random;
-import java.util.Scanner;
+import java.util.function.IntFunction;
 
 /**
  * Task assignment problem
+ * <p>
+ * Costs are stored as integers agent by agent by default, so an instance of size n takes 
+ * 4n<sup>2</sup> bytes. A second copy by task can be added with {@link #storeByTask()}, so 
+ * that the costs of each task are scanned sequentially and can be accessed in bulk (see 
+ * {@link #getCostsByAgent()}), and the costs can be stored in a narrower type if they fit,
+ * either when they are read (see {@link #TaskAssignment(String, boolean)}) or afterwards 
+ * (see {@link #compact()}).
  * 
  * @author ccottap
  *
@@ -22,7 +34,7 @@ public class TaskAssignment {
 	/**
 	 * cost of assigning each task to each agent
 	 */
-	protected int[][] cost;
+	private CostMatrix cost;
 	/**
 	 * class-level random generator;
 	 */
@@ -31,6 +43,14 @@ public class TaskAssignment {
 	 * minimal cost value used when generating random instances
 	 */
 	static final int MINCOST = 10;
+	/**
+	 * extension of files in binary format
+	 */
+	public static final String BINARY_EXTENSION = ".tapb";
+	/**
+	 * magic number of the binary format ("TAPB")
+	 */
+	private static final int BINARY_MAGIC = 0x54415042;
 
 	/**
 	 * Main constructor. Randomizes the costs
@@ -38,30 +58,212 @@ public class TaskAssignment {
 	 * @param n the number of agents/tasks
 	 */
 	public TaskAssignment(int n) {
+		randomize(n, r);
+	}
+	
+	/**
+	 * Creates a random instance using a specific seed, independently of the
+	 * class-level random generator
+	 * 
+	 * @param n    the number of agents/tasks
+	 * @param seed the seed for generating the costs
+	 */
+	public TaskAssignment(int n, long seed) {
+		randomize(n, new Random(seed));
+	}
+	
+	/**
+	 * Randomizes the costs
+	 * 
+	 * @param n   the number of agents/tasks
+	 * @param rng the random generator
+	 */
+	private void randomize(int n, Random rng) {
 		numTasks = n;
 		int val = Math.max(n, MINCOST);
-		cost = new int[n][n];
+		cost = CostMatrix.create(n);
 		for (int i = 0; i < n; i++)
 			for (int j = 0; j < n; j++)
-				cost[i][j] = r.nextInt(val) + 1;
+				cost.set(i, j, rng.nextInt(val) + 1);
 	}
 
 	/**
-	 * Reads the problem instance from a file
+	 * Reads the problem instance from a file. Files whose name ends in {@value #BINARY_EXTENSION} 
+	 * are read in binary format (see {@link #writeBinary(String)}); otherwise a text file is expected,
+	 * containing the number of agents/tasks followed by the costs, separated by whitespace.
 	 * 
 	 * @param filename the name of the file
 	 * @throws FileNotFoundException if the file cannot be read
 	 */
 	public TaskAssignment(String filename) throws FileNotFoundException {
-		Scanner inputFile = new Scanner(new File(filename));
-
-		numTasks = inputFile.nextInt();
-		cost = new int[numTasks][numTasks];
-		for (int i = 0; i < numTasks; i++)
-			for (int j = 0; j < numTasks; j++)
-				cost[i][j] = inputFile.nextInt();
+		this(filename, false);
+	}
+	
+	/**
+	 * Reads the problem instance from a file (see {@link #TaskAssignment(String)}), storing the 
+	 * costs in the narrowest type that can hold them if so requested. In that case the file is 
+	 * read twice (first to find the range of the costs), so that the costs are never held as 
+	 * integers unless they need to.
+	 * 
+	 * @param filename the name of the file
+	 * @param compact  whether the costs are stored in the narrowest type that can hold them
+	 * @throws FileNotFoundException if the file cannot be read
+	 */
+	public TaskAssignment(String filename, boolean compact) throws FileNotFoundException {
+		int[] range = compact ? readRange(filename) : new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE};
+		numTasks = read(filename, n -> {
+			cost = CostMatrix.create(n, range[0], range[1]);
+			return cost::set;
+		});
+	}
+	
+	/**
+	 * Reads the number of bytes that each cost of the problem instance stored in a file takes
+	 * when read in the narrowest type that can hold them (see {@link #TaskAssignment(String, boolean)}).
+	 * All costs are read.
+	 * 
+	 * @param filename the name of the file
+	 * @return the number of bytes per cost
+	 * @throws FileNotFoundException if the file cannot be read
+	 */
+	public static int readCostBytes(String filename) throws FileNotFoundException {
+		int[] range = readRange(filename);
+		return CostMatrix.elementBytes(range[0], range[1]);
+	}
+	
+	/**
+	 * Reads the range of the costs of the problem instance stored in a file
+	 * 
+	 * @param filename the name of the file
+	 * @return the smallest and the largest cost
+	 * @throws FileNotFoundException if the file cannot be read
+	 */
+	private static int[] readRange(String filename) throws FileNotFoundException {
+		int[] range = {Integer.MAX_VALUE, Integer.MIN_VALUE};
+		read(filename, n -> (agent, task, c) -> {
+			range[0] = Math.min(range[0], c);
+			range[1] = Math.max(range[1], c);
+		});
+		return range;
+	}
+	
+	/**
+	 * Receiver of the costs read from a file
+	 */
+	@FunctionalInterface
+	private interface CostReceiver {
+		/**
+		 * Receives the cost of assigning a task to an agent
+		 * 
+		 * @param agent the agent index
+		 * @param task  the task index
+		 * @param cost  the cost of the assignment
+		 */
+		void accept(int agent, int task, int cost);
+	}
+	
+	/**
+	 * Reads the costs of a problem instance from a file, in the format given by its name
+	 * (see {@link #TaskAssignment(String)})
+	 * 
+	 * @param filename the name of the file
+	 * @param start    function returning the receiver of the costs given the number of agents/tasks
+	 * @return the number of agents/tasks
+	 * @throws FileNotFoundException if the file cannot be read
+	 */
+	private static int read(String filename, IntFunction<CostReceiver> start) throws FileNotFoundException {
+		try (FileChannel channel = new FileInputStream(filename).getChannel()) {
+			if (filename.endsWith(BINARY_EXTENSION))
+				return readBinary(channel, start);
+			else 
+				return readText(channel, start);
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Reads the number of agents/tasks of the problem instance stored in a file, without
+	 * reading the costs. The format is determined as in {@link #TaskAssignment(String)}.
+	 * 
+	 * @param filename the name of the file
+	 * @return the number of agents/tasks
+	 * @throws FileNotFoundException if the file cannot be read
+	 */
+	public static int readNumTasks(String filename) throws FileNotFoundException {
+		try (FileChannel channel = new FileInputStream(filename).getChannel()) {
+			if (filename.endsWith(BINARY_EXTENSION)) {
+				ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+				readFully(channel, header);
+				if (header.getInt() != BINARY_MAGIC)
+					throw new InputMismatchException("not a binary task assignment file");
+				return header.getInt();
+			}
+			return new IntReader(channel).nextInt();
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 
-		inputFile.close();
+	/**
+	 * Reads the problem instance in text format
+	 * 
+	 * @param channel the source of data
+	 * @param start   function returning the receiver of the costs given the number of agents/tasks
+	 * @return the number of agents/tasks
+	 */
+	private static int readText(FileChannel channel, IntFunction<CostReceiver> start) {
+		IntReader in = new IntReader(channel);
+		int n = CostMatrix.checkSize(in.nextInt());
+		CostReceiver costs = start.apply(n);
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < n; j++)
+				costs.accept(i, j, in.nextInt());
+		return n;
+	}
+	
+	/**
+	 * Reads the problem instance in binary format
+	 * 
+	 * @param channel the source of data
+	 * @param start   function returning the receiver of the costs given the number of agents/tasks
+	 * @return the number of agents/tasks
+	 * @throws IOException if the data cannot be read
+	 */
+	private static int readBinary(FileChannel channel, IntFunction<CostReceiver> start) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+		readFully(channel, header);
+		if (header.getInt() != BINARY_MAGIC)
+			throw new InputMismatchException("not a binary task assignment file");
+		int n = CostMatrix.checkSize(header.getInt());
+		CostReceiver costs = start.apply(n);
+		ByteBuffer row = ByteBuffer.allocate(n * Integer.BYTES);
+		for (int i = 0; i < n; i++) {
+			readFully(channel, row);
+			for (int j = 0; j < n; j++)
+				costs.accept(i, j, row.getInt());
+		}
+		return n;
+	}
+	
+	/**
+	 * Fills a buffer with data from a channel and prepares it for reading
+	 * 
+	 * @param channel the source of data
+	 * @param buf the buffer
+	 * @throws IOException if the data cannot be read
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buf) throws IOException {
+		buf.clear();
+		while (buf.hasRemaining()) {
+			if (channel.read(buf) < 0)
+				throw new IOException("unexpected end of file");
+		}
+		buf.flip();
 	}
 
 	/**
@@ -72,7 +274,61 @@ public class TaskAssignment {
 	 * @return the cost of the assignment
 	 */
 	public int getCost(int agent, int task) {
-		return cost[agent][task];
+		return cost.get(agent, task);
+	}
+	
+	/**
+	 * Returns the cost of assigning a task to an agent. The result is the same as
+	 * {@link #getCost(int, int)}, but the costs are read task by task if they are stored
+	 * that way (see {@link #storeByTask()}), which is faster when iterating over agents
+	 * for a fixed task.
+	 * 
+	 * @param task  the task index
+	 * @param agent the agent index
+	 * @return the cost of the assignment
+	 */
+	public int getCostByTask(int task, int agent) {
+		return cost.getByTask(task, agent);
+	}
+	
+	/**
+	 * Returns the costs by agent as a flat array of integers (i.e., the cost of agent i for task j 
+	 * at position i*n+j), provided they are stored as integers both by agent and by task (see 
+	 * {@link #storeByTask()}). This allows scanning the costs in bulk, e.g., with vector instructions.
+	 * 
+	 * @return the costs by agent, which must not be modified, or null if they are not stored that way
+	 */
+	public int[] getCostsByAgent() {
+		return (cost instanceof IntCostMatrix m) ? m.byAgent() : null;
+	}
+	
+	/**
+	 * Returns the costs by task as a flat array of integers (i.e., the cost of agent i for task j 
+	 * at position j*n+i), provided they are stored as integers both by agent and by task (see 
+	 * {@link #storeByTask()}). This allows scanning the costs in bulk, e.g., with vector instructions.
+	 * 
+	 * @return the costs by task, which must not be modified, or null if they are not stored that way
+	 */
+	public int[] getCostsByTask() {
+		return (cost instanceof IntCostMatrix m) ? m.byTask() : null;
+	}
+	
+	/**
+	 * Stores an additional copy of the costs task by task (unless already stored), 
+	 * which doubles the memory they take.
+	 */
+	public void storeByTask() {
+		cost = cost.withCopyByTask();
+	}
+	
+	/**
+	 * Stores the costs using the narrowest element type that can hold them
+	 * (e.g., bytes if all costs are in [0, 255]), reducing memory usage and bandwidth.
+	 * Both representations are held while the costs are copied; see 
+	 * {@link #TaskAssignment(String, boolean)} to avoid it.
+	 */
+	public void compact() {
+		cost = cost.narrow();
 	}
 
 	/**
@@ -90,25 +346,58 @@ public class TaskAssignment {
 	 * @return a string representing the problem instance
 	 */
 	public String toString() {
-		String cad = "" + numTasks + "\n";
+		StringBuilder cad = new StringBuilder();
+		cad.append(numTasks).append("\n");
 		for (int i = 0; i < numTasks; i++) {
 			for (int j = 0; j < numTasks; j++)
-				cad = cad + cost[i][j] + "\t";
-			cad = cad + "\n";
+				cad.append(cost.get(i, j)).append("\t");
+			cad.append("\n");
 		}
-		return cad;
+		return cad.toString();
 	}
 
 	/**
-	 * Writes the problem instance to a file
+	 * Writes the problem instance to a file (in the same format as {@link #toString()})
 	 * 
 	 * @param filename the name of the file
 	 * @throws IOException if the file cannot be written
 	 */
 	public void writeToFile(String filename) throws IOException {
-		PrintWriter out = new PrintWriter(new FileWriter(filename));
-		out.print(this);
-		out.close();
+		try (BufferedWriter out = new BufferedWriter(new FileWriter(filename))) {
+			out.write(numTasks + "\n");
+			for (int i = 0; i < numTasks; i++) {
+				for (int j = 0; j < numTasks; j++) {
+					out.write(Integer.toString(cost.get(i, j)));
+					out.write('\t');
+				}
+				out.write('\n');
+			}
+		}
+	}
+	
+	/**
+	 * Writes the problem instance to a file in binary format: a magic number and the number of 
+	 * agents/tasks, followed by the costs (by agent) as 32-bit big-endian integers
+	 * 
+	 * @param filename the name of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void writeBinary(String filename) throws IOException {
+		try (FileChannel channel = new FileOutputStream(filename).getChannel()) {
+			ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+			header.putInt(BINARY_MAGIC).putInt(numTasks).flip();
+			while (header.hasRemaining())
+				channel.write(header);
+			ByteBuffer row = ByteBuffer.allocate(numTasks * Integer.BYTES);
+			for (int i = 0; i < numTasks; i++) {
+				row.clear();
+				for (int j = 0; j < numTasks; j++)
+					row.putInt(cost.get(i, j));
+				row.flip();
+				while (row.hasRemaining())
+					channel.write(row);
+			}
+		}
 	}
 	
 	
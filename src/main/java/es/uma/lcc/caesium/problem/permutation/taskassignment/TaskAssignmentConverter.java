@@ -0,0 +1,32 @@
+package es.uma.lcc.caesium.problem.permutation.taskassignment;
+
+import java.io.IOException;
+
+/**
+ * Converts task assignment instances between text and binary format. 
+ * The format of each file is determined by its extension.
+ * 
+ * @author ccottap
+ *
+ */
+public class TaskAssignmentConverter {
+
+	/**
+	 * Main method
+	 * @param args command-line parameters: input file, output file
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Parameters: <input-file> <output-file>");
+		}
+		else {
+			TaskAssignment p = new TaskAssignment(args[0]);
+			if (args[1].endsWith(TaskAssignment.BINARY_EXTENSION))
+				p.writeBinary(args[1]);
+			else
+				p.writeToFile(args[1]);
+		}
+	}
+
+}
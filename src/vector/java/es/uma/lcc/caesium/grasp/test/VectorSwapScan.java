@@ -0,0 +1,65 @@
+package es.uma.lcc.caesium.grasp.test;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Evaluation of the swaps of a row of the swap neighborhood of the Task Assignment Problem
+ * using the Vector API. The costs of the agent of the row are read sequentially from the costs
+ * by agent, and the costs of the other agents for the task of the row are gathered from the
+ * costs by task. Lanes keep their own best swap, and these are reduced at the end of the row.
+ * This class is only built with the vector profile, and only loaded if the module 
+ * jdk.incubator.vector is available.
+ * @author ccottap
+ * @version 1.1
+ */
+class VectorSwapScan implements SwapScan {
+	/**
+	 * the preferred vector species for integers
+	 */
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+	/**
+	 * index of each lane
+	 */
+	private static final IntVector IOTA = IntVector.zero(SPECIES).addIndex(1);
+
+	/**
+	 * {@inheritDoc}
+	 * The outcome is the same as that of a scalar scan.
+	 */
+	@Override
+	public void scanRow(int[] byAgent, int[] byTask, int n, int i, int[] agent, int[] current, int[] rowBest, int[] rowArg) {
+		int a1 = agent[i];
+		int c1 = current[i];
+		int rowA = a1 * n;
+		int rowT = i * n;
+		int bound = SPECIES.loopBound(i);
+		IntVector bestV = IntVector.zero(SPECIES);
+		IntVector argV = IntVector.broadcast(SPECIES, -1);
+		IntVector index = IOTA;
+		IntVector c1V = IntVector.broadcast(SPECIES, c1);
+		for (int j=0; j<bound; j+=SPECIES.length()) {
+			IntVector net = IntVector.fromArray(SPECIES, byAgent, rowA + j)
+								.add(IntVector.fromArray(SPECIES, byTask, rowT, agent, j))
+								.sub(IntVector.fromArray(SPECIES, current, j))
+								.sub(c1V);
+			VectorMask<Integer> better = net.lt(bestV);
+			bestV = bestV.blend(net, better);
+			argV = argV.blend(index, better);
+			index = index.add(SPECIES.length());
+		}
+		int best = bestV.reduceLanes(VectorOperators.MIN);
+		int arg = (best < 0) ? argV.reduceLanes(VectorOperators.MIN, bestV.eq(best)) : -1;
+		for (int j=bound; j<i; j++) {
+			int net = byAgent[rowA + j] + byTask[rowT + agent[j]] - current[j] - c1;
+			if (net < best) {
+				best = net;
+				arg = j;
+			}
+		}
+		rowBest[i] = best;
+		rowArg[i] = arg;
+	}
+}